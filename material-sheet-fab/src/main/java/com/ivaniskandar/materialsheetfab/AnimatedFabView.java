@@ -0,0 +1,370 @@
+package com.ivaniskandar.materialsheetfab;
+
+import android.annotation.TargetApi;
+import android.content.Context;
+import android.content.res.TypedArray;
+import android.graphics.Bitmap;
+import android.graphics.BlurMaskFilter;
+import android.graphics.Canvas;
+import android.graphics.Outline;
+import android.graphics.Paint;
+import android.graphics.drawable.Drawable;
+import android.os.Build;
+import android.util.AttributeSet;
+import android.util.TypedValue;
+import android.view.View;
+import android.view.ViewOutlineProvider;
+import android.view.accessibility.AccessibilityEvent;
+import android.view.accessibility.AccessibilityNodeInfo;
+import android.view.animation.AnimationUtils;
+import android.view.animation.Interpolator;
+import android.widget.Button;
+
+import com.ivaniskandar.materialsheetfab.animations.AnimationClock;
+import com.ivaniskandar.materialsheetfab.animations.AnimationListener;
+import com.ivaniskandar.materialsheetfab.animations.FrameAnimator;
+import com.ivaniskandar.materialsheetfab.animations.ProgressListener;
+import com.ivaniskandar.materialsheetfab.animations.SystemAnimationClock;
+
+/**
+ * Floating action button that draws its circle and icon itself, so the sheet can be used without
+ * the design library. The FAB casts an elevation shadow on Android 5.0+ and draws a cached
+ * shadow bitmap before that.
+ *
+ * Showing and hiding reuse the same animator, so they don't allocate. The FAB is focusable and
+ * announced as a button. Set {@code android:contentDescription} to describe what it does,
+ * otherwise a generic description is used.
+ */
+public class AnimatedFabView extends View implements AnimatedFab {
+
+	private static final int SHOW_HIDE_ANIM_DURATION = 200;
+
+	private static final int SIZE_NORMAL = 0;
+	private static final int SIZE_NORMAL_DP = 56;
+	private static final int SIZE_MINI_DP = 40;
+	private static final int DEFAULT_ELEVATION_DP = 6;
+	private static final int DEFAULT_COLOR = 0xffff4081;
+	private static final int PRESSED_COLOR = 0x1f000000;
+	private static final int FOCUSED_COLOR = 0x3d000000;
+	private static final int SHADOW_COLOR = 0x42000000;
+
+	private final Paint circlePaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+	private final Paint pressedPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+	private final Paint focusedPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+	private final Paint shadowPaint = new Paint(Paint.FILTER_BITMAP_FLAG);
+	private Drawable icon;
+	private int diameter;
+	private float elevation;
+	// Space around the circle for the drawn shadow, only used before Android 5.0
+	private int shadowPadding;
+	private Bitmap shadowBitmap;
+
+	// Show and hide animation
+	private FrameAnimator animator = new FrameAnimator(SystemAnimationClock.getInstance());
+	private final Interpolator interpolator;
+	private boolean isHiding;
+	private float startScale;
+	private float endScale;
+	private float startTranslationX;
+	private float endTranslationX;
+	private float startTranslationY;
+	private float endTranslationY;
+
+	private final ProgressListener showHideListener = new ProgressListener() {
+		@Override
+		public void onProgress(float progress) {
+			float scale = startScale + (endScale - startScale) * progress;
+			setScaleX(scale);
+			setScaleY(scale);
+			setTranslationX(startTranslationX + (endTranslationX - startTranslationX) * progress);
+			setTranslationY(startTranslationY + (endTranslationY - startTranslationY) * progress);
+		}
+	};
+
+	private final AnimationListener hideEndListener = new AnimationListener() {
+		@Override
+		public void onEnd() {
+			// Hide the FAB and restore its scale for the next time it is shown
+			isHiding = false;
+			setVisibility(View.INVISIBLE);
+			setScaleX(1);
+			setScaleY(1);
+		}
+	};
+
+	public AnimatedFabView(Context context) {
+		this(context, null);
+	}
+
+	public AnimatedFabView(Context context, AttributeSet attrs) {
+		this(context, attrs, 0);
+	}
+
+	public AnimatedFabView(Context context, AttributeSet attrs, int defStyleAttr) {
+		super(context, attrs, defStyleAttr);
+		float density = getResources().getDisplayMetrics().density;
+		TypedArray a = context.obtainStyledAttributes(attrs, R.styleable.AnimatedFabView,
+				defStyleAttr, 0);
+		try {
+			icon = a.getDrawable(R.styleable.AnimatedFabView_msf_fabIcon);
+			circlePaint.setColor(a.getColor(R.styleable.AnimatedFabView_msf_fabColor,
+					getThemeAccentColor(context)));
+			elevation = a.getDimension(R.styleable.AnimatedFabView_msf_fabElevation,
+					DEFAULT_ELEVATION_DP * density);
+			int size = a.getInt(R.styleable.AnimatedFabView_msf_fabSize, SIZE_NORMAL);
+			diameter = Math.round((size == SIZE_NORMAL ? SIZE_NORMAL_DP : SIZE_MINI_DP) * density);
+		} finally {
+			a.recycle();
+		}
+		interpolator = AnimationUtils.loadInterpolator(context, R.interpolator.msf_interpolator);
+		pressedPaint.setColor(PRESSED_COLOR);
+		focusedPaint.setColor(FOCUSED_COLOR);
+		shadowPaint.setColor(SHADOW_COLOR);
+		if (icon != null) {
+			icon.setCallback(this);
+		}
+		if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
+			initElevation();
+		} else {
+			// Leave room for the blur and for the shadow being offset downwards
+			shadowPadding = (int) Math.ceil(elevation * 1.5f);
+		}
+		setClickable(true);
+		setFocusable(true);
+		if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
+			// The focused state is drawn on the circle instead of around the view's bounds
+			disableDefaultFocusHighlight();
+		}
+		if (getContentDescription() == null) {
+			setContentDescription(context.getString(R.string.msf_fab_description));
+		}
+	}
+
+	private static int getThemeAccentColor(Context context) {
+		if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
+			TypedValue value = new TypedValue();
+			if (context.getTheme().resolveAttribute(android.R.attr.colorAccent, value, true)
+					&& value.type >= TypedValue.TYPE_FIRST_COLOR_INT
+					&& value.type <= TypedValue.TYPE_LAST_COLOR_INT) {
+				return value.data;
+			}
+		}
+		return DEFAULT_COLOR;
+	}
+
+	@TargetApi(Build.VERSION_CODES.LOLLIPOP)
+	private void initElevation() {
+		setElevation(elevation);
+		setOutlineProvider(new ViewOutlineProvider() {
+			@Override
+			public void getOutline(View view, Outline outline) {
+				int left = (view.getWidth() - diameter) / 2;
+				int top = (view.getHeight() - diameter) / 2;
+				outline.setOval(left, top, left + diameter, top + diameter);
+			}
+		});
+	}
+
+	@TargetApi(Build.VERSION_CODES.O)
+	private void disableDefaultFocusHighlight() {
+		setDefaultFocusHighlightEnabled(false);
+	}
+
+	/**
+	 * Shows the FAB.
+	 */
+	@Override
+	public void show() {
+		show(0, 0);
+	}
+
+	/**
+	 * Shows the FAB and sets the FAB's translation. The FAB grows if it is hidden and moves to
+	 * the translation otherwise.
+	 *
+	 * @param translationX translation X value
+	 * @param translationY translation Y value
+	 */
+	@Override
+	public void show(float translationX, float translationY) {
+		// Grow from where a hide animation left off, or from nothing if the FAB is hidden
+		startScale = getVisibility() == View.VISIBLE ? getScaleX() : 0;
+		endScale = 1;
+		startTranslationX = getTranslationX();
+		startTranslationY = getTranslationY();
+		endTranslationX = translationX;
+		endTranslationY = translationY;
+		isHiding = false;
+		setVisibility(View.VISIBLE);
+		if (startScale == endScale && startTranslationX == endTranslationX
+				&& startTranslationY == endTranslationY) {
+			animator.cancel();
+			return;
+		}
+		animator.start(SHOW_HIDE_ANIM_DURATION, interpolator, showHideListener, null);
+	}
+
+	/**
+	 * Hides the FAB.
+	 */
+	@Override
+	public void hide() {
+		if (getVisibility() != View.VISIBLE || isHiding) {
+			return;
+		}
+		isHiding = true;
+		startScale = getScaleX();
+		endScale = 0;
+		// Finish moving the FAB right away
+		startTranslationX = endTranslationX = getTranslationX();
+		startTranslationY = endTranslationY = getTranslationY();
+		animator.start(SHOW_HIDE_ANIM_DURATION, interpolator, showHideListener, hideEndListener);
+	}
+
+	/**
+	 * Stops showing or hiding the FAB where it is, e.g. so that the FAB's properties can be set
+	 * directly.
+	 */
+	public void cancelShowHideAnimation() {
+		animator.cancel();
+		isHiding = false;
+	}
+
+	/**
+	 * Sets the clock that drives the show and hide animations. A running animation is stopped
+	 * where it is. {@link MaterialSheetFab#setAnimationClock(AnimationClock)} sets its clock here
+	 * too.
+	 *
+	 * @param clock The animation clock.
+	 */
+	public void setAnimationClock(AnimationClock clock) {
+		cancelShowHideAnimation();
+		animator = new FrameAnimator(clock);
+	}
+
+	/**
+	 * Returns whether the FAB is being shown or hidden.
+	 */
+	public boolean isShowHideAnimationRunning() {
+		return animator.isRunning();
+	}
+
+	/**
+	 * Sets the icon drawn in the middle of the FAB.
+	 */
+	public void setIcon(Drawable icon) {
+		if (this.icon != null) {
+			this.icon.setCallback(null);
+		}
+		this.icon = icon;
+		if (icon != null) {
+			icon.setCallback(this);
+			updateIconBounds(getWidth(), getHeight());
+		}
+		invalidate();
+	}
+
+	/**
+	 * Sets the color of the FAB's circle.
+	 */
+	public void setFabColor(int color) {
+		circlePaint.setColor(color);
+		invalidate();
+	}
+
+	@Override
+	protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+		int size = diameter + 2 * shadowPadding;
+		setMeasuredDimension(resolveSize(size + getPaddingLeft() + getPaddingRight(),
+				widthMeasureSpec),
+				resolveSize(size + getPaddingTop() + getPaddingBottom(), heightMeasureSpec));
+	}
+
+	@Override
+	protected void onSizeChanged(int w, int h, int oldw, int oldh) {
+		super.onSizeChanged(w, h, oldw, oldh);
+		updateIconBounds(w, h);
+		if (shadowPadding > 0 && shadowBitmap == null) {
+			shadowBitmap = createShadowBitmap();
+		}
+	}
+
+	private void updateIconBounds(int width, int height) {
+		if (icon == null) {
+			return;
+		}
+		int iconWidth = icon.getIntrinsicWidth();
+		int iconHeight = icon.getIntrinsicHeight();
+		int left = (width - iconWidth) / 2;
+		int top = (height - iconHeight) / 2;
+		icon.setBounds(left, top, left + iconWidth, top + iconHeight);
+	}
+
+	/**
+	 * Draws the blurred circle once, so that drawing the shadow is a single bitmap draw.
+	 */
+	private Bitmap createShadowBitmap() {
+		float blurRadius = elevation;
+		int size = diameter + 2 * shadowPadding;
+		Bitmap bitmap = Bitmap.createBitmap(size, size, Bitmap.Config.ALPHA_8);
+		Paint paint = new Paint(Paint.ANTI_ALIAS_FLAG);
+		paint.setMaskFilter(new BlurMaskFilter(blurRadius, BlurMaskFilter.Blur.NORMAL));
+		new Canvas(bitmap).drawCircle(size / 2f, size / 2f, diameter / 2f, paint);
+		return bitmap;
+	}
+
+	@Override
+	protected void onDraw(Canvas canvas) {
+		float centerX = getWidth() / 2f;
+		float centerY = getHeight() / 2f;
+		float radius = diameter / 2f;
+		if (shadowBitmap != null) {
+			// The key light is above the FAB, so its shadow falls below it
+			canvas.drawBitmap(shadowBitmap, centerX - shadowBitmap.getWidth() / 2f,
+					centerY - shadowBitmap.getHeight() / 2f + elevation / 2, shadowPaint);
+		}
+		canvas.drawCircle(centerX, centerY, radius, circlePaint);
+		if (isPressed()) {
+			canvas.drawCircle(centerX, centerY, radius, pressedPaint);
+		} else if (isFocused()) {
+			canvas.drawCircle(centerX, centerY, radius, focusedPaint);
+		}
+		if (icon != null) {
+			icon.draw(canvas);
+		}
+	}
+
+	@Override
+	protected void drawableStateChanged() {
+		super.drawableStateChanged();
+		if (icon != null && icon.isStateful()) {
+			icon.setState(getDrawableState());
+		}
+		// The pressed and focused overlays depend on the state
+		invalidate();
+	}
+
+	@Override
+	protected boolean verifyDrawable(Drawable who) {
+		return who == icon || super.verifyDrawable(who);
+	}
+
+	// Announce the FAB as a button
+
+	@Override
+	public CharSequence getAccessibilityClassName() {
+		return Button.class.getName();
+	}
+
+	@Override
+	public void onInitializeAccessibilityEvent(AccessibilityEvent event) {
+		super.onInitializeAccessibilityEvent(event);
+		event.setClassName(Button.class.getName());
+	}
+
+	@Override
+	public void onInitializeAccessibilityNodeInfo(AccessibilityNodeInfo info) {
+		super.onInitializeAccessibilityNodeInfo(info);
+		info.setClassName(Button.class.getName());
+	}
+}
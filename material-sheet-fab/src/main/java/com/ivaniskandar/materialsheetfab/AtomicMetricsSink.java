@@ -0,0 +1,161 @@
+package com.ivaniskandar.materialsheetfab;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Metrics sink that keeps event counters and transition duration histograms in atomic arrays.
+ * Recording never locks or allocates, and {@link #snapshot()} can be called from any thread.
+ */
+public class AtomicMetricsSink implements MetricsSink {
+
+	private static final Event[] EVENTS = Event.values();
+	private static final Transition[] TRANSITIONS = Transition.values();
+
+	// Upper bounds of the duration buckets in milliseconds, the last bucket has no upper bound
+	private static final long[] BUCKET_BOUNDS = { 16, 33, 66, 125, 250, 500, 1000 };
+	private static final int BUCKET_COUNT = BUCKET_BOUNDS.length + 1;
+
+	private final AtomicLongArray counts = new AtomicLongArray(EVENTS.length);
+	// Buckets of each transition, one transition after the other
+	private final AtomicLongArray buckets = new AtomicLongArray(TRANSITIONS.length * BUCKET_COUNT);
+	private final AtomicLongArray totalDurations = new AtomicLongArray(TRANSITIONS.length);
+	private final AtomicLongArray maxDurations = new AtomicLongArray(TRANSITIONS.length);
+
+	@Override
+	public void onEvent(Event event) {
+		counts.incrementAndGet(event.ordinal());
+	}
+
+	@Override
+	public void onTransitionEnded(Transition transition, long durationMillis) {
+		int index = transition.ordinal();
+		buckets.incrementAndGet(index * BUCKET_COUNT + bucketOf(durationMillis));
+		totalDurations.addAndGet(index, durationMillis);
+		long max = maxDurations.get(index);
+		while (durationMillis > max && !maxDurations.compareAndSet(index, max, durationMillis)) {
+			max = maxDurations.get(index);
+		}
+	}
+
+	/**
+	 * Returns a copy of the current metrics. Values recorded while copying may or may not be
+	 * included, but each value is read atomically.
+	 */
+	public Snapshot snapshot() {
+		long[] countsCopy = new long[EVENTS.length];
+		for (int i = 0; i < countsCopy.length; i++) {
+			countsCopy[i] = counts.get(i);
+		}
+		long[] bucketsCopy = new long[buckets.length()];
+		for (int i = 0; i < bucketsCopy.length; i++) {
+			bucketsCopy[i] = buckets.get(i);
+		}
+		long[] totalsCopy = new long[TRANSITIONS.length];
+		long[] maxCopy = new long[TRANSITIONS.length];
+		for (int i = 0; i < TRANSITIONS.length; i++) {
+			totalsCopy[i] = totalDurations.get(i);
+			maxCopy[i] = maxDurations.get(i);
+		}
+		return new Snapshot(countsCopy, bucketsCopy, totalsCopy, maxCopy);
+	}
+
+	/**
+	 * Clears all metrics.
+	 */
+	public void reset() {
+		for (int i = 0; i < counts.length(); i++) {
+			counts.set(i, 0);
+		}
+		for (int i = 0; i < buckets.length(); i++) {
+			buckets.set(i, 0);
+		}
+		for (int i = 0; i < TRANSITIONS.length; i++) {
+			totalDurations.set(i, 0);
+			maxDurations.set(i, 0);
+		}
+	}
+
+	private static int bucketOf(long durationMillis) {
+		for (int i = 0; i < BUCKET_BOUNDS.length; i++) {
+			if (durationMillis <= BUCKET_BOUNDS[i]) {
+				return i;
+			}
+		}
+		return BUCKET_BOUNDS.length;
+	}
+
+	/**
+	 * Metrics copied at one point in time.
+	 */
+	public static class Snapshot {
+
+		private final long[] counts;
+		private final long[] buckets;
+		private final long[] totalDurations;
+		private final long[] maxDurations;
+
+		private Snapshot(long[] counts, long[] buckets, long[] totalDurations,
+				long[] maxDurations) {
+			this.counts = counts;
+			this.buckets = buckets;
+			this.totalDurations = totalDurations;
+			this.maxDurations = maxDurations;
+		}
+
+		public long getCount(Event event) {
+			return counts[event.ordinal()];
+		}
+
+		/**
+		 * Returns the number of transitions that took at most the matching upper bound of
+		 * {@link #getBucketBounds()} and more than the previous one. The last bucket counts the
+		 * transitions longer than every bound.
+		 */
+		public long[] getDurationHistogram(Transition transition) {
+			long[] histogram = new long[BUCKET_COUNT];
+			System.arraycopy(buckets, transition.ordinal() * BUCKET_COUNT, histogram, 0,
+					BUCKET_COUNT);
+			return histogram;
+		}
+
+		/**
+		 * Returns the upper bounds of the histogram buckets in milliseconds.
+		 */
+		public static long[] getBucketBounds() {
+			return BUCKET_BOUNDS.clone();
+		}
+
+		public long getTransitionCount(Transition transition) {
+			long count = 0;
+			int start = transition.ordinal() * BUCKET_COUNT;
+			for (int i = start; i < start + BUCKET_COUNT; i++) {
+				count += buckets[i];
+			}
+			return count;
+		}
+
+		public long getMeanDurationMillis(Transition transition) {
+			long count = getTransitionCount(transition);
+			return count == 0 ? 0 : totalDurations[transition.ordinal()] / count;
+		}
+
+		public long getMaxDurationMillis(Transition transition) {
+			return maxDurations[transition.ordinal()];
+		}
+
+		@Override
+		public String toString() {
+			StringBuilder builder = new StringBuilder("Snapshot{");
+			for (Event event : EVENTS) {
+				builder.append(event).append('=').append(getCount(event)).append(", ");
+			}
+			for (Transition transition : TRANSITIONS) {
+				builder.append(transition).append(" mean=")
+						.append(getMeanDurationMillis(transition)).append("ms max=")
+						.append(getMaxDurationMillis(transition)).append("ms, ");
+			}
+			builder.setLength(builder.length() - 2);
+			return builder.append('}').toString();
+		}
+	}
+}
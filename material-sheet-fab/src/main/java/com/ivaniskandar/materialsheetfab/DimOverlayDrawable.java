@@ -0,0 +1,106 @@
+package com.ivaniskandar.materialsheetfab;
+
+import android.graphics.Canvas;
+import android.graphics.ColorFilter;
+import android.graphics.Paint;
+import android.graphics.PixelFormat;
+import android.graphics.Rect;
+import android.graphics.drawable.Drawable;
+
+/**
+ * Drawable that fills its bounds with the dim color, leaving out an optional excluded area.
+ */
+public class DimOverlayDrawable extends Drawable {
+
+	private final Paint paint = new Paint();
+	private final Rect excludedBounds = new Rect();
+	private int color;
+	private int alpha = 255;
+
+	public DimOverlayDrawable(int color) {
+		setColor(color);
+	}
+
+	public void setColor(int color) {
+		this.color = color;
+		updatePaint();
+	}
+
+	/**
+	 * Sets the area that is left undimmed, in the drawable's coordinates.
+	 */
+	public void setExcludedBounds(int left, int top, int right, int bottom) {
+		if (excludedBounds.left != left || excludedBounds.top != top
+				|| excludedBounds.right != right || excludedBounds.bottom != bottom) {
+			excludedBounds.set(left, top, right, bottom);
+			invalidateSelf();
+		}
+	}
+
+	public void clearExcludedBounds() {
+		if (!excludedBounds.isEmpty()) {
+			excludedBounds.setEmpty();
+			invalidateSelf();
+		}
+	}
+
+	@Override
+	public void draw(Canvas canvas) {
+		if (paint.getAlpha() == 0) {
+			return;
+		}
+		Rect bounds = getBounds();
+		Rect excluded = excludedBounds;
+		if (excluded.isEmpty() || !Rect.intersects(bounds, excluded)) {
+			canvas.drawRect(bounds, paint);
+			return;
+		}
+		// Draw the bands around the excluded area instead of clipping so that the excluded
+		// pixels are not touched at all
+		int top = Math.max(bounds.top, excluded.top);
+		int bottom = Math.min(bounds.bottom, excluded.bottom);
+		if (top > bounds.top) {
+			canvas.drawRect(bounds.left, bounds.top, bounds.right, top, paint);
+		}
+		if (bottom < bounds.bottom) {
+			canvas.drawRect(bounds.left, bottom, bounds.right, bounds.bottom, paint);
+		}
+		if (excluded.left > bounds.left) {
+			canvas.drawRect(bounds.left, top, excluded.left, bottom, paint);
+		}
+		if (excluded.right < bounds.right) {
+			canvas.drawRect(excluded.right, top, bounds.right, bottom, paint);
+		}
+	}
+
+	@Override
+	public void setAlpha(int alpha) {
+		if (this.alpha != alpha) {
+			this.alpha = alpha;
+			updatePaint();
+			invalidateSelf();
+		}
+	}
+
+	@Override
+	public int getAlpha() {
+		return alpha;
+	}
+
+	@Override
+	public void setColorFilter(ColorFilter colorFilter) {
+		paint.setColorFilter(colorFilter);
+		invalidateSelf();
+	}
+
+	@Override
+	public int getOpacity() {
+		return paint.getAlpha() == 0 ? PixelFormat.TRANSPARENT : PixelFormat.TRANSLUCENT;
+	}
+
+	private void updatePaint() {
+		// Modulate the color's own alpha with the drawable's alpha
+		int colorAlpha = color >>> 24;
+		paint.setColor((color & 0x00ffffff) | ((colorAlpha * alpha / 255) << 24));
+	}
+}
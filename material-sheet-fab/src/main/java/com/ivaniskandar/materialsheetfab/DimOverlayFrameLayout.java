@@ -11,6 +11,8 @@ import android.widget.FrameLayout;
  */
 public class DimOverlayFrameLayout extends FrameLayout {
 
+	private DimOverlayDrawable dimDrawable;
+
 	public DimOverlayFrameLayout(Context context) {
 		super(context);
 		init();
@@ -27,6 +29,24 @@ public class DimOverlayFrameLayout extends FrameLayout {
 	}
 
 	private void init() {
-		inflate(getContext(), R.layout.dim_overlay, this);
+		dimDrawable = new DimOverlayDrawable(getResources().getColor(R.color.background_dim_overlay));
+		setBackgroundDrawable(dimDrawable);
+	}
+
+	/**
+	 * Leaves part of the overlay undimmed.
+	 */
+	public void setExcludedBounds(int left, int top, int right, int bottom) {
+		if (left >= right || top >= bottom) {
+			dimDrawable.clearExcludedBounds();
+		} else {
+			dimDrawable.setExcludedBounds(left, top, right, bottom);
+		}
+	}
+
+	@Override
+	public boolean hasOverlappingRendering() {
+		// Fading a lone background doesn't need an offscreen layer
+		return getChildCount() > 0;
 	}
 }
@@ -0,0 +1,90 @@
+package com.ivaniskandar.materialsheetfab;
+
+import android.view.ViewConfiguration;
+
+/**
+ * Hides the FAB while scrolling content down and shows it again when scrolling up.
+ *
+ * Feed it the vertical scroll deltas of the scrolling content, e.g. from a RecyclerView scroll
+ * listener. The FAB only changes after scrolling past a threshold in the same direction, so small
+ * back and forth scrolls don't make it flicker. Scrolling is ignored while the sheet is shown or
+ * animating.
+ */
+public class FabScrollController {
+
+	// Distance to scroll before the FAB changes, in touch slops
+	private static final int DEFAULT_THRESHOLD_SLOPS = 2;
+
+	private final MaterialSheetFab<?> materialSheetFab;
+	private final int threshold;
+	// Distance scrolled in the current direction, positive when scrolling down
+	private int scrolled;
+	private boolean isEnabled = true;
+
+	/**
+	 * Creates a controller with a threshold based on the touch slop.
+	 *
+	 * @param materialSheetFab Controller of the FAB to hide and show.
+	 */
+	public FabScrollController(MaterialSheetFab<?> materialSheetFab) {
+		this(materialSheetFab, ViewConfiguration.get(materialSheetFab.fab.getContext())
+				.getScaledTouchSlop() * DEFAULT_THRESHOLD_SLOPS);
+	}
+
+	/**
+	 * @param materialSheetFab Controller of the FAB to hide and show.
+	 * @param threshold Distance in pixels to scroll in one direction before the FAB is hidden or
+	 *            shown.
+	 */
+	public FabScrollController(MaterialSheetFab<?> materialSheetFab, int threshold) {
+		this.materialSheetFab = materialSheetFab;
+		this.threshold = Math.max(threshold, 0);
+	}
+
+	/**
+	 * Called when the content scrolls.
+	 *
+	 * @param dy Vertical scroll delta in pixels, positive when scrolling down.
+	 */
+	public void onScrolled(int dy) {
+		if (!isEnabled || dy == 0) {
+			return;
+		}
+		// Start over when the direction changes
+		if ((dy > 0) != (scrolled > 0)) {
+			scrolled = 0;
+		}
+		scrolled += dy;
+		if (scrolled > threshold) {
+			materialSheetFab.setFabScrolledAway(true);
+			// Stay at the threshold so that this can't overflow and is retried on the next delta
+			scrolled = threshold;
+		} else if (scrolled < -threshold) {
+			materialSheetFab.setFabScrolledAway(false);
+			scrolled = -threshold;
+		}
+	}
+
+	/**
+	 * Forgets the distance scrolled so far, e.g. when switching to other content.
+	 */
+	public void reset() {
+		scrolled = 0;
+	}
+
+	/**
+	 * Sets whether scrolling hides and shows the FAB. A FAB hidden by scrolling is shown again
+	 * when disabling.
+	 */
+	public void setEnabled(boolean enabled) {
+		isEnabled = enabled;
+		if (!enabled) {
+			reset();
+			materialSheetFab.setFabScrolledAway(false);
+		}
+	}
+
+	public boolean isEnabled() {
+		return isEnabled;
+	}
+}
@@ -1,16 +1,28 @@
 package com.ivaniskandar.materialsheetfab;
 
-import android.os.Handler;
+import android.app.Activity;
+import android.content.Context;
+import android.content.ContextWrapper;
+import android.graphics.Rect;
+import android.os.Looper;
+import android.os.MessageQueue;
 import android.view.MotionEvent;
 import android.view.View;
+import android.view.ViewGroup;
 import android.view.ViewTreeObserver;
+import android.view.Window;
 import android.view.animation.AnimationUtils;
 import android.view.animation.Interpolator;
 
+import com.ivaniskandar.materialsheetfab.animations.AnimationClock;
 import com.ivaniskandar.materialsheetfab.animations.AnimationListener;
 import com.ivaniskandar.materialsheetfab.animations.FabAnimation;
 import com.ivaniskandar.materialsheetfab.animations.MaterialSheetAnimation;
 import com.ivaniskandar.materialsheetfab.animations.OverlayAnimation;
+import com.ivaniskandar.materialsheetfab.animations.ProgressListener;
+import com.ivaniskandar.materialsheetfab.animations.SystemAnimationClock;
+import com.ivaniskandar.materialsheetfab.animations.SystemBarAnimation;
+import com.ivaniskandar.materialsheetfab.animations.ViewOverlayAnimation;
 
 /**
  * Created by Gordon Wong on 7/9/2015.
@@ -34,23 +46,59 @@ public class MaterialSheetFab<FAB extends View & AnimatedFab> {
 	private static final int SHOW_SHEET_ANIM_DELAY = 0;
 	private static final int MOVE_FAB_ANIM_DELAY = 0;
 
+	// Trace section names
+	private static final String TRACE_SHOW_SHEET = "MaterialSheetFab#showSheet";
+	private static final String TRACE_HIDE_SHEET = "MaterialSheetFab#hideSheet";
+	private static final String TRACE_ALIGN_SHEET = "MaterialSheetFab#alignSheetWithFab";
+	private static final String TRACE_UPDATE_ANCHOR = "MaterialSheetFab#updateFabAnchor";
+	private static final String TRACE_SHOW_TRANSITION = "MaterialSheetFab show transition";
+	private static final String TRACE_HIDE_TRANSITION = "MaterialSheetFab hide transition";
+	private static final String TRACE_FAB_MORPH = "MaterialSheetFab FAB morph";
+	private static final String TRACE_SHEET_MORPH = "MaterialSheetFab sheet morph";
+
 	// Views
 	protected FAB fab;
+	protected View sheet;
+	protected View overlay;
+
+	// Colors
+	private int sheetColor;
+	private int fabColor;
 
 	// Animations
 	protected FabAnimation fabAnimation;
 	protected MaterialSheetAnimation sheetAnimation;
 	protected OverlayAnimation overlayAnimation;
+	private SystemBarAnimation systemBarAnimation;
+	private AnimationClock clock = SystemAnimationClock.getInstance();
+	private Tracer tracer = Tracer.NONE;
+	private MetricsSink metrics = MetricsSink.NONE;
+	private int traceCookie;
+	private boolean isCachedSheetShadowEnabled;
 
 	// State
 	protected int anchorX;
 	protected int anchorY;
-	private boolean isShowing;
-	private boolean isHiding;
-	private boolean hideSheetAfterSheetIsShown;
+	private final Rect revealedBounds = new Rect();
+	private float trackedFabX;
+	private float trackedFabY;
+	private final SheetStateMachine stateMachine = new SheetStateMachine();
+	private final SheetStateStream stateStream = new SheetStateStream();
+	private float revealProgress;
+	private AnimationListener pendingHideListener;
+	private float fabTranslationX;
+	private float fabTranslationY;
+	private boolean isFabHidden;
+	private boolean isFabScrolledAway;
+	// Whether showFab() or hideSheetThenFab() was called while the sheet was visible or
+	// animating, so the FAB is shown or hidden once the sheet is hidden
+	private boolean hasPendingFabUpdate;
+	private boolean hasInitializedViews;
 
 	// Listeners
 	private MaterialSheetFabEventListener eventListener;
+	private ViewTreeObserver.OnPreDrawListener anchorTrackingListener;
+	private OverlayWindowCallback windowCallback;
 
 	public enum RevealXDirection {
 		LEFT, RIGHT
@@ -61,7 +109,9 @@ public class MaterialSheetFab<FAB extends View & AnimatedFab> {
 	}
 
 	/**
-	 * Creates a MaterialSheetFab instance and sets up the necessary click listeners.
+	 * Creates a MaterialSheetFab instance. The initial visibilities and click listeners are set
+	 * right before the first frame is drawn. The animations are only created when the sheet is
+	 * first shown or hidden, or while the main thread is idle if {@link #prewarmSheet()} is used.
 	 *
 	 * @param fab The FAB view.
 	 * @param sheet The sheet view.
@@ -70,19 +120,55 @@ public class MaterialSheetFab<FAB extends View & AnimatedFab> {
 	 * @param fabColor The background color of the FAB.
 	 */
 	public MaterialSheetFab(FAB fab, View sheet, View overlay, int sheetColor, int fabColor) {
-		Interpolator interpolator = AnimationUtils.loadInterpolator(sheet.getContext(),
-				R.interpolator.msf_interpolator);
-
 		this.fab = fab;
+		this.sheet = sheet;
+		this.overlay = overlay;
+		this.sheetColor = sheetColor;
+		this.fabColor = fabColor;
 
-		// Create animations
-		fabAnimation = new FabAnimation(fab, interpolator);
-		sheetAnimation = new MaterialSheetAnimation(sheet, sheetColor, fabColor, interpolator);
-		overlayAnimation = new OverlayAnimation(overlay, interpolator);
+		// Set listener for when FAB view is about to be drawn for the first time
+		fab.getViewTreeObserver().addOnPreDrawListener(new ViewTreeObserver.OnPreDrawListener() {
+			@Override
+			public boolean onPreDraw() {
+				// Remove listener so that this is only called once
+				MaterialSheetFab.this.fab.getViewTreeObserver().removeOnPreDrawListener(this);
+				ensureViewsInitialized();
+				// Initialize FAB anchor now that the FAB view is laid out
+				updateFabAnchor();
+				return true;
+			}
+		});
+	}
+
+	/**
+	 * Creates a MaterialSheetFab instance that dims the screen without an overlay view. The dim
+	 * is drawn into the activity content view's overlay (Android 4.3+) and touches outside of the
+	 * sheet are handled by the activity's window.
+	 *
+	 * @param fab The FAB view.
+	 * @param sheet The sheet view.
+	 * @param sheetColor The background color of the material sheet.
+	 * @param fabColor The background color of the FAB.
+	 */
+	public MaterialSheetFab(FAB fab, View sheet, int sheetColor, int fabColor) {
+		this(fab, sheet, null, sheetColor, fabColor);
+	}
+
+	/**
+	 * Sets the initial visibilities and the click listeners if that hasn't been done yet. This is
+	 * all that is needed before the sheet is first shown.
+	 */
+	private void ensureViewsInitialized() {
+		if (hasInitializedViews) {
+			return;
+		}
+		hasInitializedViews = true;
+		if (overlay != null) {
+			initOverlay();
+		}
 
 		// Set initial visibilities
 		sheet.setVisibility(View.INVISIBLE);
-		overlay.setVisibility(View.GONE);
 
 		// Set listener to morph FAB into sheet when clicked
 		fab.setOnClickListener(new View.OnClickListener() {
@@ -91,6 +177,107 @@ public class MaterialSheetFab<FAB extends View & AnimatedFab> {
 				showSheet();
 			}
 		});
+	}
+
+	/**
+	 * Creates the animations and sets up the views and listeners if that hasn't been done yet.
+	 */
+	protected void ensureInitialized() {
+		if (sheetAnimation != null) {
+			return;
+		}
+		ensureViewsInitialized();
+		Interpolator interpolator = AnimationUtils.loadInterpolator(sheet.getContext(),
+				R.interpolator.msf_interpolator);
+
+		// Create animations
+		fabAnimation = new FabAnimation(fab, interpolator, clock);
+		sheetAnimation = new MaterialSheetAnimation(sheet, sheetColor, fabColor, interpolator,
+				clock);
+		sheetAnimation.setCachedShadowEnabled(isCachedSheetShadowEnabled);
+		if (overlay != null) {
+			overlayAnimation = new OverlayAnimation(overlay, interpolator, clock);
+		} else {
+			final Window window = getWindow(fab.getContext());
+			View content = window.findViewById(android.R.id.content);
+			overlayAnimation = new ViewOverlayAnimation(content,
+					content.getResources().getColor(R.color.background_dim_overlay), interpolator,
+					clock);
+
+			// Hide the sheet when touching outside of it, for as long as the content is attached
+			windowCallback = OverlayWindowCallback.install(window, this, sheet);
+			content.addOnAttachStateChangeListener(new View.OnAttachStateChangeListener() {
+				@Override
+				public void onViewAttachedToWindow(View view) {
+					if (windowCallback == null) {
+						windowCallback = OverlayWindowCallback.install(window,
+								MaterialSheetFab.this, sheet);
+					}
+				}
+
+				@Override
+				public void onViewDetachedFromWindow(View view) {
+					if (windowCallback != null) {
+						windowCallback.uninstall(window);
+						windowCallback = null;
+					}
+				}
+			});
+		}
+		overlayAnimation.setSystemBarAnimation(systemBarAnimation);
+
+		// Leave the revealed part of the sheet undimmed so it isn't drawn over the dim
+		sheetAnimation.setRevealProgressListener(new ProgressListener() {
+			@Override
+			public void onProgress(float progress) {
+				updateExcludedBounds(progress);
+				revealProgress = progress;
+				publishState();
+			}
+		});
+
+		// Report clicks on the sheet's menu items to the event listener
+		SheetMenuView sheetMenu = findSheetMenu(sheet);
+		if (sheetMenu != null) {
+			sheetMenu.setOnItemClickListener(new SheetMenuView.OnItemClickListener() {
+				@Override
+				void onItemClick(int itemId) {
+					onSheetItemClick(itemId);
+				}
+			});
+		}
+	}
+
+	private static SheetMenuView findSheetMenu(View view) {
+		if (view instanceof SheetMenuView) {
+			return (SheetMenuView) view;
+		}
+		if (view instanceof ViewGroup) {
+			ViewGroup group = (ViewGroup) view;
+			for (int i = 0; i < group.getChildCount(); i++) {
+				SheetMenuView sheetMenu = findSheetMenu(group.getChildAt(i));
+				if (sheetMenu != null) {
+					return sheetMenu;
+				}
+			}
+		}
+		return null;
+	}
+
+	private void onSheetItemClick(int itemId) {
+		// Ignore clicks once the sheet has started morphing back into the FAB
+		if (!isSheetVisible()) {
+			return;
+		}
+		if (eventListener != null) {
+			eventListener.onSheetItemClick(itemId);
+		}
+	}
+
+	private void initOverlay() {
+		// Set initial overlay visibility
+		overlay.setVisibility(View.GONE);
+		overlay.setAlpha(0);
 
 		// Set listener to hide the sheet when touching the overlay
 		overlay.setOnTouchListener(new View.OnTouchListener() {
@@ -103,19 +290,16 @@ public class MaterialSheetFab<FAB extends View & AnimatedFab> {
 				return true;
 			}
 		});
+	}
 
-		// Set listener for when FAB view is laid out
-		fab.getViewTreeObserver()
-				.addOnGlobalLayoutListener(new ViewTreeObserver.OnGlobalLayoutListener() {
-					@Override
-					public void onGlobalLayout() {
-						// Remove listener so that this is only called once
-						MaterialSheetFab.this.fab.getViewTreeObserver()
-								.removeGlobalOnLayoutListener(this);
-						// Initialize FAB anchor when the FAB view is laid out
-						updateFabAnchor();
-					}
-				});
+	private static Window getWindow(Context context) {
+		while (context instanceof ContextWrapper) {
+			if (context instanceof Activity) {
+				return ((Activity) context).getWindow();
+			}
+			context = ((ContextWrapper) context).getBaseContext();
+		}
+		throw new IllegalArgumentException("The FAB must be attached to an activity");
 	}
 
 	/**
@@ -126,17 +310,71 @@ public class MaterialSheetFab<FAB extends View & AnimatedFab> {
 	}
 
 	/**
-	 * Shows the FAB and sets the FAB's translation.
+	 * Shows the FAB and sets the FAB's translation. While the sheet is visible or animating, the
+	 * FAB is shown once the sheet is hidden.
 	 *
 	 * @param translationX translation X value
 	 * @param translationY translation Y value
 	 */
 	public void showFab(float translationX, float translationY) {
+		if (translationX != fabTranslationX || translationY != fabTranslationY) {
+			metrics.onEvent(MetricsSink.Event.FAB_REPOSITIONED);
+		}
+		// Remember the translation so that the FAB can be shown again after scrolling
+		fabTranslationX = translationX;
+		fabTranslationY = translationY;
+		isFabHidden = false;
+		isFabScrolledAway = false;
 		// Update FAB's anchor
 		setFabAnchor(translationX, translationY);
-		// Show the FAB in the new position if the sheet is not visible
-		if (!isSheetVisible()) {
-			fab.show(translationX, translationY);
+		// The morph animates the FAB's scale and translation, so wait until the sheet is hidden
+		if (isSheetVisible() || isAnimating()) {
+			hasPendingFabUpdate = true;
+			return;
+		}
+		// Undo the scale left by setFabOffset(), the FAB's own animations scale it anyway
+		fab.setScaleX(1);
+		fab.setScaleY(1);
+		fab.show(translationX, translationY);
+	}
+
+	/**
+	 * Moves and scales the FAB right away, without animating. Meant to be called on every frame
+	 * of a gesture, e.g. from {@code ViewPager.OnPageChangeListener.onPageScrolled()}, so that the
+	 * FAB follows the gesture. The FAB is hidden at a scale of 0.
+	 *
+	 * While the sheet is visible only the FAB's anchor is updated, so that the sheet morphs back
+	 * into the FAB at the new position.
+	 *
+	 * @param translationX translation X value
+	 * @param translationY translation Y value
+	 * @param scale scale of the FAB, from 0 to 1
+	 */
+	public void setFabOffset(float translationX, float translationY, float scale) {
+		fabTranslationX = translationX;
+		fabTranslationY = translationY;
+		isFabHidden = scale <= 0;
+		isFabScrolledAway = false;
+		setFabAnchor(translationX, translationY);
+		if (isSheetVisible() || isAnimating()) {
+			return;
+		}
+
+		// Stop animations from showFab() and hideSheetThenFab() that would fight the offset
+		if (fab.getAnimation() != null) {
+			fab.clearAnimation();
+		}
+		fab.animate().cancel();
+		if (fab instanceof AnimatedFabView) {
+			((AnimatedFabView) fab).cancelShowHideAnimation();
+		}
+		fab.setTranslationX(translationX);
+		fab.setTranslationY(translationY);
+		fab.setScaleX(scale);
+		fab.setScaleY(scale);
+		int visibility = scale > 0 ? View.VISIBLE : View.INVISIBLE;
+		if (fab.getVisibility() != visibility) {
+			fab.setVisibility(visibility);
 		}
 	}
 
@@ -144,10 +382,42 @@ public class MaterialSheetFab<FAB extends View & AnimatedFab> {
 	 * Shows the sheet.
 	 */
 	public void showSheet() {
-		if (isAnimating()) {
-			return;
+		tracer.beginSection(TRACE_SHOW_SHEET);
+		try {
+			startShowingSheet();
+		} finally {
+			tracer.endSection();
+		}
+	}
+
+	private void startShowingSheet() {
+		ensureInitialized();
+		metrics.onEvent(MetricsSink.Event.SHOW_REQUESTED);
+		switch (stateMachine.requestShow()) {
+		case STARTED:
+			runShowTransition();
+			break;
+		case DEFERRED:
+			metrics.onEvent(MetricsSink.Event.SHOW_DEFERRED);
+			break;
+		case IGNORED:
+		default:
+			metrics.onEvent(MetricsSink.Event.SHOW_DROPPED);
+			break;
 		}
-		isShowing = true;
+		// A show cancels a hide that was waiting for the sheet to be shown
+		if (stateMachine.getPendingTarget() == null) {
+			pendingHideListener = null;
+		}
+	}
+
+	private void runShowTransition() {
+		final long startTime = clock.now();
+		// Keep the tracer in case it is changed before the transition ends
+		final Tracer transitionTracer = tracer;
+		final int cookie = ++traceCookie;
+		transitionTracer.beginAsyncSection(TRACE_SHOW_TRANSITION, cookie);
+		publishState();
 
 		// Show overlay
 		overlayAnimation.show(SHOW_OVERLAY_ANIM_DURATION, null);
@@ -156,19 +426,17 @@ public class MaterialSheetFab<FAB extends View & AnimatedFab> {
 		morphIntoSheet(new AnimationListener() {
 			@Override
 			public void onEnd() {
+				transitionTracer.endAsyncSection(TRACE_SHOW_TRANSITION, cookie);
+				metrics.onEvent(MetricsSink.Event.SHOW_COMPLETED);
+				metrics.onTransitionEnded(MetricsSink.Transition.SHOW, clock.now() - startTime);
+
 				// Call event listener
 				if (eventListener != null) {
 					eventListener.onSheetShown();
 				}
 
 				// Assuming that this is the last animation to finish
-				isShowing = false;
-
-				// Hide sheet after it is shown
-				if (hideSheetAfterSheetIsShown) {
-					hideSheet();
-					hideSheetAfterSheetIsShown = false;
-				}
+				onTransitionEnded();
 			}
 		});
 
@@ -185,15 +453,52 @@ public class MaterialSheetFab<FAB extends View & AnimatedFab> {
 		hideSheet(null);
 	}
 
+	/**
+	 * Hides the sheet.
+	 *
+	 * @param endListener Listener called once the sheet is hidden. Called right away if the sheet
+	 *            is already hidden. Not called if the sheet is already being hidden or if the
+	 *            sheet is shown again before it is hidden.
+	 */
 	protected void hideSheet(final AnimationListener endListener) {
-		if (isAnimating()) {
+		tracer.beginSection(TRACE_HIDE_SHEET);
+		try {
+			startHidingSheet(endListener);
+		} finally {
+			tracer.endSection();
+		}
+	}
+
+	private void startHidingSheet(AnimationListener endListener) {
+		ensureInitialized();
+		metrics.onEvent(MetricsSink.Event.HIDE_REQUESTED);
+		switch (stateMachine.requestHide()) {
+		case STARTED:
+			runHideTransition(endListener);
+			break;
+		case DEFERRED:
 			// Wait until the sheet is shown and then hide it
-			if (isShowing) {
-				hideSheetAfterSheetIsShown = true;
+			pendingHideListener = endListener;
+			metrics.onEvent(MetricsSink.Event.HIDE_DEFERRED);
+			break;
+		case IGNORED:
+		default:
+			pendingHideListener = null;
+			metrics.onEvent(MetricsSink.Event.HIDE_DROPPED);
+			if (endListener != null && stateMachine.getState() == SheetStateMachine.State.HIDDEN) {
+				endListener.onEnd();
 			}
-			return;
+			break;
 		}
-		isHiding = true;
+	}
+
+	private void runHideTransition(final AnimationListener endListener) {
+		final long startTime = clock.now();
+		// Keep the tracer in case it is changed before the transition ends
+		final Tracer transitionTracer = tracer;
+		final int cookie = ++traceCookie;
+		transitionTracer.beginAsyncSection(TRACE_HIDE_TRANSITION, cookie);
+		publishState();
 
 		// Hide overlay
 		overlayAnimation.hide(HIDE_OVERLAY_ANIM_DURATION, null);
@@ -202,6 +507,10 @@ public class MaterialSheetFab<FAB extends View & AnimatedFab> {
 		morphFromSheet(new AnimationListener() {
 			@Override
 			public void onEnd() {
+				transitionTracer.endAsyncSection(TRACE_HIDE_TRANSITION, cookie);
+				metrics.onEvent(MetricsSink.Event.HIDE_COMPLETED);
+				metrics.onTransitionEnded(MetricsSink.Transition.HIDE, clock.now() - startTime);
+
 				// Call event listeners
 				if (endListener != null) {
 					endListener.onEnd();
@@ -211,7 +520,7 @@ public class MaterialSheetFab<FAB extends View & AnimatedFab> {
 				}
 
 				// Assuming that this is the last animation to finish
-				isHiding = false;
+				onTransitionEnded();
 			}
 		});
 
@@ -222,23 +531,81 @@ public class MaterialSheetFab<FAB extends View & AnimatedFab> {
 	}
 
 	/**
-	 * Hides the sheet (if visible) and then hides the FAB.
+	 * Starts the transition to the final state requested while the last transition ran, if it
+	 * differs from the state the sheet ended up in.
 	 */
-	public void hideSheetThenFab() {
-		AnimationListener listener = new AnimationListener() {
-			@Override
-			public void onEnd() {
-				fab.hide();
+	private void onTransitionEnded() {
+		if (!stateMachine.onTransitionEnded()) {
+			publishState();
+			if (stateMachine.getState() == SheetStateMachine.State.HIDDEN) {
+				applyPendingFabUpdate();
 			}
-		};
-		// Hide sheet then hide FAB
-		if (isSheetVisible()) {
-			hideSheet(listener);
+			return;
+		}
+		if (stateMachine.getState() == SheetStateMachine.State.SHOWING) {
+			runShowTransition();
+		} else {
+			AnimationListener endListener = pendingHideListener;
+			pendingHideListener = null;
+			runHideTransition(endListener);
+		}
+	}
+
+	/**
+	 * Shows or hides the FAB as last requested while the sheet was visible or animating.
+	 */
+	private void applyPendingFabUpdate() {
+		if (!hasPendingFabUpdate) {
+			return;
+		}
+		hasPendingFabUpdate = false;
+		if (isFabHidden) {
+			fab.hide();
+		} else {
+			fab.show(fabTranslationX, fabTranslationY);
+		}
+	}
+
+	private void publishState() {
+		stateStream.publish(stateMachine.getState(), revealProgress);
+	}
+
+	/**
+	 * Hides the sheet (if visible) and then hides the FAB. The FAB is hidden once the sheet is
+	 * hidden, unless {@link #showFab()} is called before that.
+	 */
+	public void hideSheetThenFab() {
+		isFabHidden = true;
+		// Hide the FAB once the sheet is hidden, since the morph animates the FAB
+		if (isSheetVisible() || isAnimating()) {
+			hasPendingFabUpdate = true;
+			hideSheet();
 		}
 		// Hide FAB
 		else {
-			listener.onEnd();
+			fab.hide();
+		}
+	}
+
+	/**
+	 * Hides the FAB because the content scrolled, or shows it again at its last translation.
+	 * Ignored while the sheet is visible or animating and while the FAB is hidden by
+	 * {@link #hideSheetThenFab()}.
+	 *
+	 * @return Whether the FAB was hidden or shown.
+	 */
+	boolean setFabScrolledAway(boolean scrolledAway) {
+		if (isFabScrolledAway == scrolledAway || isFabHidden || isAnimating()
+				|| isSheetVisible()) {
+			return false;
 		}
+		isFabScrolledAway = scrolledAway;
+		if (scrolledAway) {
+			fab.hide();
+		} else {
+			fab.show(fabTranslationX, fabTranslationY);
+		}
+		return true;
 	}
 
 	protected void morphIntoSheet(final AnimationListener endListener) {
@@ -248,45 +615,113 @@ public class MaterialSheetFab<FAB extends View & AnimatedFab> {
 		updateFabAnchor();
 
 		// Align sheet's position with FAB
-		sheetAnimation.alignSheetWithFab(fab);
+		alignSheetWithFab();
 
 		// Morph FAB into sheet
-		fabAnimation.morphIntoSheet(FAB_ANIM_DURATION, null);
+		fabAnimation.morphIntoSheet(FAB_ANIM_DURATION, traceAnimation(TRACE_FAB_MORPH, null));
 
 		// Show sheet after a delay
-		new Handler().postDelayed(new Runnable() {
+		clock.postDelayed(new Runnable() {
 			@Override
 			public void run() {
-				// Hide FAB
-				fab.setVisibility(View.INVISIBLE);
-
-				// Show sheet
+				// Show sheet (the FAB is hidden when its animation ends)
 				sheetAnimation.morphFromFab(fab, SHEET_ANIM_DURATION,
-						SHOW_SHEET_COLOR_ANIM_DURATION, endListener);
+						SHOW_SHEET_COLOR_ANIM_DURATION,
+						traceAnimation(TRACE_SHEET_MORPH, endListener));
 			}
 		}, SHOW_SHEET_ANIM_DELAY);
 	}
 
 	protected void morphFromSheet(final AnimationListener endListener) {
 		// Morph sheet into FAB
-		sheetAnimation.morphIntoFab(fab, SHEET_ANIM_DURATION, HIDE_SHEET_COLOR_ANIM_DURATION, null);
+		sheetAnimation.morphIntoFab(fab, SHEET_ANIM_DURATION, HIDE_SHEET_COLOR_ANIM_DURATION,
+				traceAnimation(TRACE_SHEET_MORPH, null));
 
-		// Show FAB after a delay
-		new Handler().postDelayed(new Runnable() {
+		// Show FAB after a delay (the sheet is hidden when its animation ends)
+		clock.postDelayed(new Runnable() {
 			@Override
 			public void run() {
-				// Hide sheet
-				sheetAnimation.setSheetVisibility(View.INVISIBLE);
-
 				// Show FAB
-				fabAnimation.morphFromSheet(FAB_ANIM_DURATION, endListener);
+				fabAnimation.morphFromSheet(FAB_ANIM_DURATION,
+						traceAnimation(TRACE_FAB_MORPH, endListener));
 			}
 		}, MOVE_FAB_ANIM_DELAY);
 	}
 
+	protected void trackFabAnchor() {
+		// getX() and getY() include the translation, so this catches every kind of movement
+		float x = fab.getX();
+		float y = fab.getY();
+		if (x == trackedFabX && y == trackedFabY) {
+			return;
+		}
+		trackedFabX = x;
+		trackedFabY = y;
+		updateFabAnchor();
+		// Move the sheet along with the FAB, leaving transitions alone since they align the
+		// sheet themselves
+		if (isSheetVisible() && !isAnimating()) {
+			alignSheetWithFab();
+			updateExcludedBounds(1);
+		}
+	}
+
+	private void updateExcludedBounds(float progress) {
+		// A dim drawn above the sheet must not cover the sheet's padding and corners either
+		sheetAnimation.getRevealedBounds(progress, !overlayAnimation.isDrawnAboveSheet(),
+				revealedBounds);
+		overlayAnimation.setExcludedBounds(revealedBounds);
+	}
+
 	protected void updateFabAnchor() {
+		tracer.beginSection(TRACE_UPDATE_ANCHOR);
 		// Update the anchor with the current translation
 		setFabAnchor(fab.getTranslationX(), fab.getTranslationY());
+		tracer.endSection();
+	}
+
+	private void alignSheetWithFab() {
+		tracer.beginSection(TRACE_ALIGN_SHEET);
+		sheetAnimation.alignSheetWithFab(fab);
+		tracer.endSection();
+	}
+
+	/**
+	 * Wraps a listener so that the animation it listens to shows up as an asynchronous trace
+	 * section. Returns the listener itself when not tracing.
+	 */
+	private AnimationListener traceAnimation(final String name,
+			final AnimationListener listener) {
+		if (tracer == Tracer.NONE) {
+			return listener;
+		}
+		final Tracer animationTracer = tracer;
+		final int cookie = ++traceCookie;
+		return new AnimationListener() {
+			private boolean isStarted;
+
+			@Override
+			public void onStart() {
+				// Some animations report their start more than once
+				if (!isStarted) {
+					isStarted = true;
+					animationTracer.beginAsyncSection(name, cookie);
+				}
+				if (listener != null) {
+					listener.onStart();
+				}
+			}
+
+			@Override
+			public void onEnd() {
+				if (isStarted) {
+					animationTracer.endAsyncSection(name, cookie);
+				}
+				if (listener != null) {
+					listener.onEnd();
+				}
+			}
+		};
 	}
 
 	protected void setFabAnchor(float translationX, float translationY) {
@@ -296,16 +731,179 @@ public class MaterialSheetFab<FAB extends View & AnimatedFab> {
 				.round(fab.getY() + (fab.getHeight() / 2) + (translationY - fab.getTranslationY()));
 	}
 
-	private boolean isAnimating() {
-		return isShowing || isHiding;
+	boolean isAnimating() {
+		return stateMachine.isTransitioning();
+	}
+
+	boolean isOverlayVisible() {
+		return overlayAnimation != null && overlayAnimation.isOverlayVisible();
 	}
 
 	public boolean isSheetVisible() {
-		return sheetAnimation.isSheetVisible();
+		// The sheet is hidden when initializing, so it counts as hidden until then
+		return sheetAnimation != null && sheetAnimation.isSheetVisible();
 	}
 
 	public void setEventListener(MaterialSheetFabEventListener eventListener) {
 		this.eventListener = eventListener;
 	}
 
+	/**
+	 * Returns the stream of the sheet's state and reveal progress, for observers that follow the
+	 * transitions frame by frame.
+	 */
+	public SheetStateStream getStateStream() {
+		return stateStream;
+	}
+
+	/**
+	 * Sets the clock that drives all of the animations, e.g. a {@link
+	 * com.ivaniskandar.materialsheetfab.animations.ManualAnimationClock} to step through the
+	 * animations frame by frame. Must be called before the animations are set up, i.e. before the
+	 * sheet is first shown, hidden or prewarmed. If the FAB is an {@link AnimatedFabView}, its
+	 * show and hide animations use the clock too.
+	 *
+	 * @param clock The animation clock.
+	 */
+	public void setAnimationClock(AnimationClock clock) {
+		if (sheetAnimation != null) {
+			throw new IllegalStateException("The animations have already been set up");
+		}
+		this.clock = clock;
+		if (fab instanceof AnimatedFabView) {
+			((AnimatedFabView) fab).setAnimationClock(clock);
+		}
+	}
+
+	/**
+	 * Sets the tracer that is told about the start and end of transitions, animations and
+	 * geometry updates.
+	 *
+	 * @param tracer Tracer, e.g. {@link SystemTracer#getInstance()}, or null to stop tracing.
+	 */
+	public void setTracer(Tracer tracer) {
+		this.tracer = tracer != null ? tracer : Tracer.NONE;
+	}
+
+	/**
+	 * Sets the sink that counts the sheet and FAB requests and records the transition durations.
+	 *
+	 * @param metrics Metrics sink, e.g. an {@link AtomicMetricsSink}, or null to stop recording.
+	 */
+	public void setMetricsSink(MetricsSink metrics) {
+		this.metrics = metrics != null ? metrics : MetricsSink.NONE;
+	}
+
+	/**
+	 * Draws the sheet's shadow once into a bitmap when the sheet starts morphing and reuses it
+	 * for every frame of the morph, instead of redrawing the shadow at every scale. Only has an
+	 * effect when the sheet is a support CardView on Android < 5.0. The bitmap is released when
+	 * the morph ends and by {@link #onTrimMemory(int)}.
+	 *
+	 * @param enabled Whether to cache the sheet's shadow during the morph.
+	 */
+	public void setCachedSheetShadowEnabled(boolean enabled) {
+		isCachedSheetShadowEnabled = enabled;
+		if (sheetAnimation != null) {
+			sheetAnimation.setCachedShadowEnabled(enabled);
+		}
+	}
+
+	/**
+	 * Releases memory that can be recreated, i.e. the cached sheet shadow. Call from the
+	 * activity's {@code onTrimMemory()}.
+	 *
+	 * @param level Memory trim level, see {@link android.content.ComponentCallbacks2}.
+	 */
+	public void onTrimMemory(int level) {
+		if (sheetAnimation != null) {
+			sheetAnimation.releaseCachedShadow();
+		}
+	}
+
+	AnimationClock getAnimationClock() {
+		return clock;
+	}
+
+	/**
+	 * Keeps the FAB anchor and the sheet aligned with the FAB while the FAB moves, e.g. when it
+	 * is moved by a snackbar or a scrolling app bar. The FAB position is checked before every
+	 * frame is drawn and the sheet is only realigned when the position changes.
+	 *
+	 * @param enabled Whether to track the FAB's position.
+	 */
+	public void setAnchorTrackingEnabled(boolean enabled) {
+		if (enabled == (anchorTrackingListener != null)) {
+			return;
+		}
+		if (enabled) {
+			trackedFabX = fab.getX();
+			trackedFabY = fab.getY();
+			anchorTrackingListener = new ViewTreeObserver.OnPreDrawListener() {
+				@Override
+				public boolean onPreDraw() {
+					trackFabAnchor();
+					return true;
+				}
+			};
+			fab.getViewTreeObserver().addOnPreDrawListener(anchorTrackingListener);
+		} else {
+			fab.getViewTreeObserver().removeOnPreDrawListener(anchorTrackingListener);
+			anchorTrackingListener = null;
+		}
+	}
+
+	/**
+	 * Prepares the sheet for its first "show" animation while the main thread is idle after the
+	 * sheet is laid out, so that the first time the sheet is shown is as fast as the next times.
+	 * Must be called from the main thread.
+	 */
+	public void prewarmSheet() {
+		Looper.myQueue().addIdleHandler(new MessageQueue.IdleHandler() {
+			@Override
+			public boolean queueIdle() {
+				ensureInitialized();
+				// Keep waiting if the sheet hasn't been laid out yet
+				return !sheetAnimation.prewarm();
+			}
+		});
+	}
+
+	/**
+	 * Dims the status bar along with the overlay. Has no effect on Android < 5.0.
+	 *
+	 * @param window Window whose status bar is dimmed.
+	 * @param statusBarDimColor Status bar color when the overlay is fully shown.
+	 */
+	public void setSystemBarDimming(Window window, int statusBarDimColor) {
+		setSystemBarAnimation(new SystemBarAnimation(window, statusBarDimColor));
+	}
+
+	/**
+	 * Dims the status and navigation bars along with the overlay. Has no effect on Android < 5.0.
+	 *
+	 * @param window Window whose system bars are dimmed.
+	 * @param statusBarDimColor Status bar color when the overlay is fully shown.
+	 * @param navigationBarDimColor Navigation bar color when the overlay is fully shown.
+	 */
+	public void setSystemBarDimming(Window window, int statusBarDimColor,
+			int navigationBarDimColor) {
+		setSystemBarAnimation(
+				new SystemBarAnimation(window, statusBarDimColor, navigationBarDimColor));
+	}
+
+	/**
+	 * Stops dimming the system bars along with the overlay.
+	 */
+	public void clearSystemBarDimming() {
+		setSystemBarAnimation(null);
+	}
+
+	private void setSystemBarAnimation(SystemBarAnimation systemBarAnimation) {
+		this.systemBarAnimation = systemBarAnimation;
+		if (overlayAnimation != null) {
+			overlayAnimation.setSystemBarAnimation(systemBarAnimation);
+		}
+	}
+
 }
@@ -30,4 +30,12 @@ public abstract class MaterialSheetFabEventListener {
 	 */
 	public void onSheetHidden() {
 	}
+
+	/**
+	 * Called when an item of a {@link SheetMenuView} in the sheet is clicked.
+	 *
+	 * @param itemId The item's id.
+	 */
+	public void onSheetItemClick(int itemId) {
+	}
 }
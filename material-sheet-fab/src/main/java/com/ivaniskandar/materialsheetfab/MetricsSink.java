@@ -0,0 +1,66 @@
+package com.ivaniskandar.materialsheetfab;
+
+/**
+ * Receives counts of what {@link MaterialSheetFab} did with the calls it got and how long its
+ * transitions took. Called on the main thread, so implementations must be quick and shouldn't
+ * block.
+ */
+public interface MetricsSink {
+
+	/**
+	 * Things that happen to sheet and FAB requests.
+	 */
+	enum Event {
+		/** {@link MaterialSheetFab#showSheet()} was called. */
+		SHOW_REQUESTED,
+		/** A show was ignored because the sheet already is or will be shown. */
+		SHOW_DROPPED,
+		/** A show was put off until the running hide transition ends. */
+		SHOW_DEFERRED,
+		/** A show transition ended. */
+		SHOW_COMPLETED,
+		/** The sheet was asked to hide. */
+		HIDE_REQUESTED,
+		/** A hide was ignored because the sheet already is or will be hidden. */
+		HIDE_DROPPED,
+		/** A hide was put off until the running show transition ends. */
+		HIDE_DEFERRED,
+		/** A hide transition ended. */
+		HIDE_COMPLETED,
+		/** {@link MaterialSheetFab#showFab(float, float)} moved the FAB. */
+		FAB_REPOSITIONED
+	}
+
+	/**
+	 * Sheet transitions whose durations are reported.
+	 */
+	enum Transition {
+		SHOW, HIDE
+	}
+
+	/**
+	 * Sink that ignores everything. Used by default.
+	 */
+	MetricsSink NONE = new MetricsSink() {
+		@Override
+		public void onEvent(Event event) {
+		}
+
+		@Override
+		public void onTransitionEnded(Transition transition, long durationMillis) {
+		}
+	};
+
+	/**
+	 * Called when an event happens.
+	 */
+	void onEvent(Event event);
+
+	/**
+	 * Called when a transition ends.
+	 *
+	 * @param transition The transition that ended.
+	 * @param durationMillis Time from the request to the end of the transition.
+	 */
+	void onTransitionEnded(Transition transition, long durationMillis);
+}
@@ -0,0 +1,233 @@
+package com.ivaniskandar.materialsheetfab;
+
+import android.annotation.TargetApi;
+import android.os.Build;
+import android.view.ActionMode;
+import android.view.KeyEvent;
+import android.view.KeyboardShortcutGroup;
+import android.view.Menu;
+import android.view.MenuItem;
+import android.view.MotionEvent;
+import android.view.SearchEvent;
+import android.view.View;
+import android.view.Window;
+import android.view.WindowManager;
+import android.view.accessibility.AccessibilityEvent;
+
+import java.util.List;
+
+/**
+ * Window callback that hides the sheet when touching outside of it. Used in place of the
+ * overlay view's touch listener when the dim is not drawn by a view.
+ *
+ * Use {@link #install(Window, MaterialSheetFab, View)} and {@link #uninstall(Window)} so that a
+ * window is never wrapped more than once and gets its own callback back.
+ */
+class OverlayWindowCallback implements Window.Callback {
+
+	private final Window.Callback delegate;
+	private final MaterialSheetFab<?> materialSheetFab;
+	private final View sheet;
+	private final int[] sheetCoords = new int[2];
+	private boolean isConsumingGesture;
+	private boolean isUninstalled;
+
+	private OverlayWindowCallback(Window.Callback delegate, MaterialSheetFab<?> materialSheetFab,
+			View sheet) {
+		this.delegate = delegate;
+		this.materialSheetFab = materialSheetFab;
+		this.sheet = sheet;
+	}
+
+	/**
+	 * Wraps the window's callback. Replaces the wrapper of an earlier controller instead of
+	 * wrapping it again.
+	 *
+	 * @return The installed callback.
+	 */
+	static OverlayWindowCallback install(Window window, MaterialSheetFab<?> materialSheetFab,
+			View sheet) {
+		Window.Callback callback = window.getCallback();
+		if (callback instanceof OverlayWindowCallback) {
+			OverlayWindowCallback previous = (OverlayWindowCallback) callback;
+			previous.isUninstalled = true;
+			callback = previous.delegate;
+		}
+		OverlayWindowCallback overlayCallback = new OverlayWindowCallback(callback,
+				materialSheetFab, sheet);
+		window.setCallback(overlayCallback);
+		return overlayCallback;
+	}
+
+	/**
+	 * Gives the window its own callback back. If the window's callback has been wrapped again
+	 * since, this callback only stops handling touches and passes everything on.
+	 */
+	void uninstall(Window window) {
+		isUninstalled = true;
+		if (window.getCallback() == this) {
+			window.setCallback(delegate);
+		}
+	}
+
+	@Override
+	public boolean dispatchTouchEvent(MotionEvent event) {
+		if (isUninstalled) {
+			return delegate.dispatchTouchEvent(event);
+		}
+		int action = event.getActionMasked();
+		// Decide whether to consume the gesture when it starts, just like the overlay view would
+		if (action == MotionEvent.ACTION_DOWN) {
+			isConsumingGesture = materialSheetFab.isOverlayVisible() && !isInsideSheet(event);
+			// Only hide if the sheet is visible and if this is the first touch event
+			if (isConsumingGesture && materialSheetFab.isSheetVisible()) {
+				materialSheetFab.hideSheet();
+			}
+		}
+		if (isConsumingGesture) {
+			if (action == MotionEvent.ACTION_UP || action == MotionEvent.ACTION_CANCEL) {
+				isConsumingGesture = false;
+			}
+			return true;
+		}
+		return delegate.dispatchTouchEvent(event);
+	}
+
+	private boolean isInsideSheet(MotionEvent event) {
+		if (sheet.getVisibility() != View.VISIBLE) {
+			return false;
+		}
+		sheet.getLocationOnScreen(sheetCoords);
+		float x = event.getRawX() - sheetCoords[0];
+		float y = event.getRawY() - sheetCoords[1];
+		return x >= 0 && y >= 0 && x < sheet.getWidth() && y < sheet.getHeight();
+	}
+
+	@Override
+	public boolean dispatchKeyEvent(KeyEvent event) {
+		return delegate.dispatchKeyEvent(event);
+	}
+
+	@Override
+	public boolean dispatchKeyShortcutEvent(KeyEvent event) {
+		return delegate.dispatchKeyShortcutEvent(event);
+	}
+
+	@Override
+	public boolean dispatchTrackballEvent(MotionEvent event) {
+		return delegate.dispatchTrackballEvent(event);
+	}
+
+	@Override
+	public boolean dispatchGenericMotionEvent(MotionEvent event) {
+		return delegate.dispatchGenericMotionEvent(event);
+	}
+
+	@Override
+	public boolean dispatchPopulateAccessibilityEvent(AccessibilityEvent event) {
+		return delegate.dispatchPopulateAccessibilityEvent(event);
+	}
+
+	@Override
+	public View onCreatePanelView(int featureId) {
+		return delegate.onCreatePanelView(featureId);
+	}
+
+	@Override
+	public boolean onCreatePanelMenu(int featureId, Menu menu) {
+		return delegate.onCreatePanelMenu(featureId, menu);
+	}
+
+	@Override
+	public boolean onPreparePanel(int featureId, View view, Menu menu) {
+		return delegate.onPreparePanel(featureId, view, menu);
+	}
+
+	@Override
+	public boolean onMenuOpened(int featureId, Menu menu) {
+		return delegate.onMenuOpened(featureId, menu);
+	}
+
+	@Override
+	public boolean onMenuItemSelected(int featureId, MenuItem item) {
+		return delegate.onMenuItemSelected(featureId, item);
+	}
+
+	@Override
+	public void onWindowAttributesChanged(WindowManager.LayoutParams attrs) {
+		delegate.onWindowAttributesChanged(attrs);
+	}
+
+	@Override
+	public void onContentChanged() {
+		delegate.onContentChanged();
+	}
+
+	@Override
+	public void onWindowFocusChanged(boolean hasFocus) {
+		delegate.onWindowFocusChanged(hasFocus);
+	}
+
+	@Override
+	public void onAttachedToWindow() {
+		delegate.onAttachedToWindow();
+	}
+
+	@Override
+	public void onDetachedFromWindow() {
+		delegate.onDetachedFromWindow();
+	}
+
+	@Override
+	public void onPanelClosed(int featureId, Menu menu) {
+		delegate.onPanelClosed(featureId, menu);
+	}
+
+	@Override
+	public boolean onSearchRequested() {
+		return delegate.onSearchRequested();
+	}
+
+	@TargetApi(Build.VERSION_CODES.M)
+	@Override
+	public boolean onSearchRequested(SearchEvent searchEvent) {
+		return delegate.onSearchRequested(searchEvent);
+	}
+
+	@Override
+	public ActionMode onWindowStartingActionMode(ActionMode.Callback callback) {
+		return delegate.onWindowStartingActionMode(callback);
+	}
+
+	@TargetApi(Build.VERSION_CODES.M)
+	@Override
+	public ActionMode onWindowStartingActionMode(ActionMode.Callback callback, int type) {
+		return delegate.onWindowStartingActionMode(callback, type);
+	}
+
+	@Override
+	public void onActionModeStarted(ActionMode mode) {
+		delegate.onActionModeStarted(mode);
+	}
+
+	@Override
+	public void onActionModeFinished(ActionMode mode) {
+		delegate.onActionModeFinished(mode);
+	}
+
+	// Methods with a default implementation must be forwarded too, or the delegate's
+	// implementation is skipped
+
+	@TargetApi(Build.VERSION_CODES.N)
+	@Override
+	public void onProvideKeyboardShortcuts(List<KeyboardShortcutGroup> data, Menu menu,
+			int deviceId) {
+		delegate.onProvideKeyboardShortcuts(data, menu, deviceId);
+	}
+
+	@TargetApi(Build.VERSION_CODES.O)
+	@Override
+	public void onPointerCaptureChanged(boolean hasCapture) {
+		delegate.onPointerCaptureChanged(hasCapture);
+	}
+}
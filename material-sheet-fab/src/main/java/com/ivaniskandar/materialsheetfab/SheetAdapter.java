@@ -0,0 +1,49 @@
+package com.ivaniskandar.materialsheetfab;
+
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.BaseAdapter;
+
+/**
+ * Adapter for the rows of a {@link SheetListView}. Rows are only created for the visible part of
+ * the sheet and are then reused as the sheet scrolls, so showing the sheet costs the same however
+ * many rows there are.
+ */
+public abstract class SheetAdapter extends BaseAdapter {
+
+	/**
+	 * Creates a row. Called only until there are enough rows to fill the sheet.
+	 *
+	 * @param parent The sheet list the row will be added to.
+	 */
+	public abstract View onCreateView(ViewGroup parent);
+
+	/**
+	 * Shows an item in a row that was created by {@link #onCreateView(ViewGroup)}, possibly
+	 * after it showed another item.
+	 *
+	 * @param view The row.
+	 * @param position Position of the item.
+	 */
+	public abstract void onBindView(View view, int position);
+
+	/**
+	 * Returns the item's id, the position by default.
+	 */
+	@Override
+	public long getItemId(int position) {
+		return position;
+	}
+
+	@Override
+	public Object getItem(int position) {
+		return null;
+	}
+
+	@Override
+	public final View getView(int position, View convertView, ViewGroup parent) {
+		View view = convertView != null ? convertView : onCreateView(parent);
+		onBindView(view, position);
+		return view;
+	}
+}
@@ -0,0 +1,70 @@
+package com.ivaniskandar.materialsheetfab;
+
+import android.content.Context;
+import android.content.res.TypedArray;
+import android.util.AttributeSet;
+import android.widget.ListView;
+
+/**
+ * List for sheets with many rows, e.g. share targets. The list is at most {@code msf_maxHeight}
+ * tall and scrolls beyond that, so only the rows in view are created, measured and animated when
+ * the sheet morphs.
+ */
+public class SheetListView extends ListView {
+
+	private int maxHeight = Integer.MAX_VALUE;
+
+	public SheetListView(Context context) {
+		this(context, null);
+	}
+
+	public SheetListView(Context context, AttributeSet attrs) {
+		this(context, attrs, android.R.attr.listViewStyle);
+	}
+
+	public SheetListView(Context context, AttributeSet attrs, int defStyleAttr) {
+		super(context, attrs, defStyleAttr);
+		TypedArray a = context.obtainStyledAttributes(attrs, R.styleable.SheetListView,
+				defStyleAttr, 0);
+		try {
+			maxHeight = a.getDimensionPixelSize(R.styleable.SheetListView_msf_maxHeight,
+					Integer.MAX_VALUE);
+		} finally {
+			a.recycle();
+		}
+	}
+
+	/**
+	 * Sets the height above which the list scrolls.
+	 *
+	 * @param maxHeight Maximum height in pixels.
+	 */
+	public void setMaxHeight(int maxHeight) {
+		if (this.maxHeight != maxHeight) {
+			this.maxHeight = maxHeight;
+			requestLayout();
+		}
+	}
+
+	public int getMaxHeight() {
+		return maxHeight;
+	}
+
+	@Override
+	protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+		// ListView stops measuring rows once an AT_MOST height is filled, so the cost is bounded
+		// by the height rather than by the number of rows
+		int mode = MeasureSpec.getMode(heightMeasureSpec);
+		int size = MeasureSpec.getSize(heightMeasureSpec);
+		if (maxHeight != Integer.MAX_VALUE) {
+			if (mode == MeasureSpec.UNSPECIFIED || size > maxHeight) {
+				size = maxHeight;
+				if (mode != MeasureSpec.EXACTLY) {
+					mode = MeasureSpec.AT_MOST;
+				}
+			}
+			heightMeasureSpec = MeasureSpec.makeMeasureSpec(size, mode);
+		}
+		super.onMeasure(widthMeasureSpec, heightMeasureSpec);
+	}
+}
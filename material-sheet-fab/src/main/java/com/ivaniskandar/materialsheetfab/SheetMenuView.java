@@ -0,0 +1,556 @@
+package com.ivaniskandar.materialsheetfab;
+
+import android.annotation.TargetApi;
+import android.content.Context;
+import android.content.res.Resources;
+import android.content.res.TypedArray;
+import android.content.res.XmlResourceParser;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.graphics.drawable.Drawable;
+import android.os.Build;
+import android.os.Bundle;
+import android.support.v4.content.ContextCompat;
+import android.support.v4.view.ViewCompat;
+import android.support.v4.view.accessibility.AccessibilityNodeInfoCompat;
+import android.support.v4.widget.ExploreByTouchHelper;
+import android.text.TextPaint;
+import android.text.TextUtils;
+import android.util.AttributeSet;
+import android.util.TypedValue;
+import android.util.Xml;
+import android.view.KeyEvent;
+import android.view.MotionEvent;
+import android.view.SoundEffectConstants;
+import android.view.View;
+import android.view.accessibility.AccessibilityEvent;
+
+import org.xmlpull.v1.XmlPullParser;
+import org.xmlpull.v1.XmlPullParserException;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sheet content that shows the items of a menu resource. All of the rows are drawn and
+ * hit-tested by this one view, instead of being a layout with a view per item.
+ *
+ * Each item shows its {@code android:icon} and {@code android:title}. Items with
+ * {@code android:checked="true"} are highlighted with {@code msf_checkedItemColor}, and items
+ * with {@code android:visible="false"} are left out. Clicks are reported to
+ * {@link MaterialSheetFabEventListener#onSheetItemClick(int)} by the {@link MaterialSheetFab}
+ * whose sheet contains this view.
+ *
+ * Accessibility services see every item as a clickable node of its own, which is checkable if
+ * the item has {@code android:checkable} or {@code android:checked} set. The items can be moved
+ * between with the D-pad or the keyboard and clicked with the center or enter key.
+ */
+public class SheetMenuView extends View {
+
+	private static final String ANDROID_NS = "http://schemas.android.com/apk/res/android";
+	private static final String TAG_MENU = "menu";
+	private static final String TAG_ITEM = "item";
+
+	private static final int DEFAULT_TEXT_SIZE_SP = 16;
+	private static final int DEFAULT_TEXT_COLOR = 0xde000000;
+	private static final int DEFAULT_ITEM_PADDING_DP = 16;
+	private static final int DEFAULT_ICON_PADDING_DP = 24;
+
+	private static final int[] STATE_PRESSED = new int[] { android.R.attr.state_pressed,
+			android.R.attr.state_enabled };
+	private static final int[] STATE_FOCUSED = new int[] { android.R.attr.state_focused,
+			android.R.attr.state_enabled };
+	private static final int[] STATE_RELEASED = new int[] { android.R.attr.state_enabled };
+
+	private final ArrayList<Item> items = new ArrayList<>();
+	private final TextPaint textPaint = new TextPaint(Paint.ANTI_ALIAS_FLAG);
+	private final Paint checkedPaint = new Paint();
+	private final Paint.FontMetricsInt fontMetrics = new Paint.FontMetricsInt();
+	private int itemPadding;
+	private int iconPadding;
+	private Drawable itemBackground;
+	private final Rect backgroundBounds = new Rect();
+	private int rowHeight;
+	private int pressedIndex = -1;
+	private int focusedIndex = -1;
+	private final MenuAccessibilityHelper accessibilityHelper;
+	private OnItemClickListener onItemClickListener;
+
+	/**
+	 * Listener for clicks on the items, set by the controller.
+	 */
+	abstract static class OnItemClickListener {
+
+		/**
+		 * Called when an item is clicked.
+		 *
+		 * @param itemId The item's {@code android:id}.
+		 */
+		abstract void onItemClick(int itemId);
+	}
+
+	public SheetMenuView(Context context) {
+		this(context, null);
+	}
+
+	public SheetMenuView(Context context, AttributeSet attrs) {
+		this(context, attrs, 0);
+	}
+
+	public SheetMenuView(Context context, AttributeSet attrs, int defStyleAttr) {
+		super(context, attrs, defStyleAttr);
+		Resources res = getResources();
+		TypedArray a = context.obtainStyledAttributes(attrs, R.styleable.SheetMenuView,
+				defStyleAttr, 0);
+		try {
+			textPaint.setTextSize(a.getDimension(R.styleable.SheetMenuView_msf_itemTextSize,
+					TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_SP, DEFAULT_TEXT_SIZE_SP,
+							res.getDisplayMetrics())));
+			textPaint.setColor(a.getColor(R.styleable.SheetMenuView_msf_itemTextColor,
+					DEFAULT_TEXT_COLOR));
+			itemPadding = a.getDimensionPixelSize(R.styleable.SheetMenuView_msf_itemPadding,
+					dpToPx(DEFAULT_ITEM_PADDING_DP));
+			iconPadding = a.getDimensionPixelSize(R.styleable.SheetMenuView_msf_itemIconPadding,
+					dpToPx(DEFAULT_ICON_PADDING_DP));
+			checkedPaint.setColor(a.getColor(R.styleable.SheetMenuView_msf_checkedItemColor, 0));
+			itemBackground = a.getDrawable(R.styleable.SheetMenuView_msf_itemBackground);
+			int menuRes = a.getResourceId(R.styleable.SheetMenuView_msf_menu, 0);
+			if (menuRes != 0) {
+				inflateMenu(menuRes);
+			}
+		} finally {
+			a.recycle();
+		}
+		// Use the theme's item background (a ripple on Android 5.0+) by default
+		if (itemBackground == null) {
+			TypedValue value = new TypedValue();
+			if (context.getTheme().resolveAttribute(android.R.attr.selectableItemBackground,
+					value, true) && value.resourceId != 0) {
+				itemBackground = ContextCompat.getDrawable(context, value.resourceId);
+			}
+		}
+		if (itemBackground != null) {
+			itemBackground.setCallback(this);
+		}
+		setClickable(true);
+		setFocusable(true);
+		accessibilityHelper = new MenuAccessibilityHelper();
+		ViewCompat.setAccessibilityDelegate(this, accessibilityHelper);
+	}
+
+	/**
+	 * Replaces the items with the items of a menu resource. Submenus are left out.
+	 *
+	 * @param menuRes Menu resource.
+	 */
+	public void inflateMenu(int menuRes) {
+		items.clear();
+		XmlResourceParser parser = getResources().getXml(menuRes);
+		try {
+			parseMenu(parser);
+		} catch (XmlPullParserException | IOException e) {
+			throw new IllegalArgumentException("Can't inflate menu resource " + menuRes, e);
+		} finally {
+			parser.close();
+		}
+		pressedIndex = -1;
+		// Also called from the constructor, before the helper is created
+		if (accessibilityHelper != null) {
+			// The focused item may not exist anymore
+			accessibilityHelper.clearKeyboardFocusForVirtualView(
+					accessibilityHelper.getKeyboardFocusedVirtualViewId());
+			accessibilityHelper.invalidateRoot();
+		}
+		requestLayout();
+		invalidate();
+	}
+
+	private void parseMenu(XmlResourceParser parser) throws XmlPullParserException, IOException {
+		AttributeSet attrs = Xml.asAttributeSet(parser);
+		Resources res = getResources();
+		int menuDepth = 0;
+		int event = parser.getEventType();
+		while (event != XmlPullParser.END_DOCUMENT) {
+			if (event == XmlPullParser.START_TAG) {
+				String name = parser.getName();
+				if (TAG_MENU.equals(name)) {
+					menuDepth++;
+				} else if (TAG_ITEM.equals(name) && menuDepth == 1
+						&& attrs.getAttributeBooleanValue(ANDROID_NS, "visible", true)) {
+					Item item = new Item();
+					item.id = attrs.getAttributeResourceValue(ANDROID_NS, "id", View.NO_ID);
+					int titleRes = attrs.getAttributeResourceValue(ANDROID_NS, "title", 0);
+					item.title = titleRes != 0 ? res.getText(titleRes)
+							: attrs.getAttributeValue(ANDROID_NS, "title");
+					if (item.title == null) {
+						item.title = "";
+					}
+					int iconRes = attrs.getAttributeResourceValue(ANDROID_NS, "icon", 0);
+					item.icon = iconRes != 0 ? ContextCompat.getDrawable(getContext(), iconRes) : null;
+					item.isChecked = attrs.getAttributeBooleanValue(ANDROID_NS, "checked", false);
+					item.isCheckable = item.isChecked
+							|| attrs.getAttributeBooleanValue(ANDROID_NS, "checkable", false);
+					items.add(item);
+				}
+			} else if (event == XmlPullParser.END_TAG && TAG_MENU.equals(parser.getName())) {
+				menuDepth--;
+			}
+			event = parser.next();
+		}
+	}
+
+	public int getItemCount() {
+		return items.size();
+	}
+
+	/**
+	 * Returns the id of the item at an index.
+	 */
+	public int getItemId(int index) {
+		return items.get(index).id;
+	}
+
+	/**
+	 * Highlights an item or removes its highlight. Accessibility services announce the item as
+	 * checkable from then on.
+	 *
+	 * @param itemId The item's id.
+	 * @param checked Whether to highlight the item.
+	 */
+	public void setItemChecked(int itemId, boolean checked) {
+		int index = findItem(itemId);
+		if (index >= 0 && items.get(index).isChecked != checked) {
+			items.get(index).isChecked = checked;
+			items.get(index).isCheckable = true;
+			accessibilityHelper.invalidateVirtualView(index);
+			invalidate();
+		}
+	}
+
+	private int findItem(int itemId) {
+		for (int i = 0; i < items.size(); i++) {
+			if (items.get(i).id == itemId) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	void setOnItemClickListener(OnItemClickListener listener) {
+		onItemClickListener = listener;
+	}
+
+	@Override
+	protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+		textPaint.getFontMetricsInt(fontMetrics);
+		int contentHeight = fontMetrics.descent - fontMetrics.ascent;
+		int iconWidth = 0;
+		float textWidth = 0;
+		for (int i = 0; i < items.size(); i++) {
+			Item item = items.get(i);
+			item.titleWidth = textPaint.measureText(item.title, 0, item.title.length());
+			textWidth = Math.max(textWidth, item.titleWidth);
+			if (item.icon != null) {
+				iconWidth = Math.max(iconWidth, item.icon.getIntrinsicWidth());
+				contentHeight = Math.max(contentHeight, item.icon.getIntrinsicHeight());
+			}
+		}
+		rowHeight = contentHeight + 2 * itemPadding;
+		int width = getPaddingLeft() + getPaddingRight() + 2 * itemPadding
+				+ (int) Math.ceil(textWidth) + (iconWidth > 0 ? iconWidth + iconPadding : 0);
+		int height = getPaddingTop() + getPaddingBottom() + rowHeight * items.size();
+		setMeasuredDimension(resolveSize(Math.max(width, getSuggestedMinimumWidth()),
+				widthMeasureSpec),
+				resolveSize(Math.max(height, getSuggestedMinimumHeight()), heightMeasureSpec));
+	}
+
+	@Override
+	protected void onLayout(boolean changed, int left, int top, int right, int bottom) {
+		super.onLayout(changed, left, top, right, bottom);
+		// Place the icons and shorten the titles that don't fit once, instead of on every draw
+		boolean isRtl = isLayoutRtl();
+		int width = right - left;
+		int start = isRtl ? width - getPaddingRight() - itemPadding
+				: getPaddingLeft() + itemPadding;
+		int end = isRtl ? getPaddingLeft() + itemPadding
+				: width - getPaddingRight() - itemPadding;
+		for (int i = 0; i < items.size(); i++) {
+			Item item = items.get(i);
+			int rowTop = getPaddingTop() + i * rowHeight;
+			int textStart = start;
+			if (item.icon != null) {
+				int iconWidth = item.icon.getIntrinsicWidth();
+				int iconHeight = item.icon.getIntrinsicHeight();
+				int iconTop = rowTop + (rowHeight - iconHeight) / 2;
+				int iconLeft = isRtl ? start - iconWidth : start;
+				item.icon.setBounds(iconLeft, iconTop, iconLeft + iconWidth, iconTop + iconHeight);
+				textStart = isRtl ? iconLeft - iconPadding : iconLeft + iconWidth + iconPadding;
+			}
+			float available = Math.max(0, Math.abs(end - textStart));
+			item.displayTitle = item.titleWidth <= available ? item.title
+					: TextUtils.ellipsize(item.title, textPaint, available,
+							TextUtils.TruncateAt.END);
+			float displayWidth = item.displayTitle == item.title ? item.titleWidth
+					: textPaint.measureText(item.displayTitle, 0, item.displayTitle.length());
+			item.textX = isRtl ? textStart - displayWidth : textStart;
+		}
+	}
+
+	@Override
+	protected void onDraw(Canvas canvas) {
+		int left = getPaddingLeft();
+		int right = getWidth() - getPaddingRight();
+		int baselineOffset = (rowHeight - (fontMetrics.descent - fontMetrics.ascent)) / 2
+				- fontMetrics.ascent;
+		if (checkedPaint.getColor() != 0) {
+			for (int i = 0; i < items.size(); i++) {
+				if (items.get(i).isChecked) {
+					int rowTop = getPaddingTop() + i * rowHeight;
+					canvas.drawRect(left, rowTop, right, rowTop + rowHeight, checkedPaint);
+				}
+			}
+		}
+		// The background only draws something while a row is pressed or its ripple is fading
+		if (itemBackground != null) {
+			itemBackground.draw(canvas);
+		}
+		for (int i = 0; i < items.size(); i++) {
+			Item item = items.get(i);
+			int rowTop = getPaddingTop() + i * rowHeight;
+			if (item.icon != null) {
+				item.icon.draw(canvas);
+			}
+			CharSequence title = item.displayTitle != null ? item.displayTitle : item.title;
+			canvas.drawText(title, 0, title.length(), item.textX, rowTop + baselineOffset,
+					textPaint);
+		}
+	}
+
+	@Override
+	public boolean onTouchEvent(MotionEvent event) {
+		if (!isEnabled()) {
+			return super.onTouchEvent(event);
+		}
+		float x = event.getX();
+		float y = event.getY();
+		switch (event.getActionMasked()) {
+		case MotionEvent.ACTION_DOWN:
+			int index = findRow(x, y);
+			if (index >= 0) {
+				setPressedRow(index, x, y);
+			}
+			return true;
+		case MotionEvent.ACTION_MOVE:
+			if (pressedIndex >= 0) {
+				if (findRow(x, y) != pressedIndex) {
+					setPressedRow(-1, x, y);
+				} else {
+					setHotspot(x, y);
+				}
+			}
+			return true;
+		case MotionEvent.ACTION_UP:
+			if (pressedIndex >= 0) {
+				int clickedIndex = pressedIndex;
+				setPressedRow(-1, x, y);
+				// Lets the view's own click listener and accessibility services know too. The
+				// view only plays the click sound itself if it has a click listener.
+				if (!performClick()) {
+					playSoundEffect(SoundEffectConstants.CLICK);
+				}
+				performItemClick(clickedIndex);
+			}
+			return true;
+		case MotionEvent.ACTION_CANCEL:
+			setPressedRow(-1, x, y);
+			return true;
+		default:
+			return true;
+		}
+	}
+
+	private void performItemClick(int index) {
+		accessibilityHelper.sendEventForVirtualView(index, AccessibilityEvent.TYPE_VIEW_CLICKED);
+		if (onItemClickListener != null) {
+			onItemClickListener.onItemClick(items.get(index).id);
+		}
+	}
+
+	@Override
+	protected boolean dispatchHoverEvent(MotionEvent event) {
+		return accessibilityHelper.dispatchHoverEvent(event) || super.dispatchHoverEvent(event);
+	}
+
+	@Override
+	public boolean dispatchKeyEvent(KeyEvent event) {
+		// Moves the focus between the items and clicks the focused item
+		return accessibilityHelper.dispatchKeyEvent(event) || super.dispatchKeyEvent(event);
+	}
+
+	@Override
+	protected void onFocusChanged(boolean gainFocus, int direction, Rect previouslyFocusedRect) {
+		super.onFocusChanged(gainFocus, direction, previouslyFocusedRect);
+		accessibilityHelper.onFocusChanged(gainFocus, direction, previouslyFocusedRect);
+	}
+
+	private int findRow(float x, float y) {
+		if (rowHeight == 0 || x < getPaddingLeft() || x >= getWidth() - getPaddingRight()
+				|| y < getPaddingTop()) {
+			return -1;
+		}
+		int index = (int) ((y - getPaddingTop()) / rowHeight);
+		return index < items.size() ? index : -1;
+	}
+
+	private void setPressedRow(int index, float x, float y) {
+		if (pressedIndex == index) {
+			return;
+		}
+		pressedIndex = index;
+		if (itemBackground == null) {
+			return;
+		}
+		if (index >= 0) {
+			getRowBounds(index, backgroundBounds);
+			itemBackground.setBounds(backgroundBounds);
+			setHotspot(x, y);
+			itemBackground.setState(STATE_PRESSED);
+		} else {
+			// Keep the bounds so that the released row's ripple can finish
+			itemBackground.setState(STATE_RELEASED);
+		}
+		invalidate();
+	}
+
+	private void setFocusedRow(int index) {
+		focusedIndex = index;
+		// A pressed row keeps the background until it is released
+		if (itemBackground == null || pressedIndex >= 0) {
+			return;
+		}
+		if (index >= 0) {
+			getRowBounds(index, backgroundBounds);
+			itemBackground.setBounds(backgroundBounds);
+			itemBackground.setState(STATE_FOCUSED);
+		} else {
+			itemBackground.setState(STATE_RELEASED);
+		}
+		invalidate();
+	}
+
+	private void getRowBounds(int index, Rect outBounds) {
+		int rowTop = getPaddingTop() + index * rowHeight;
+		outBounds.set(getPaddingLeft(), rowTop, getWidth() - getPaddingRight(),
+				rowTop + rowHeight);
+	}
+
+	@TargetApi(Build.VERSION_CODES.LOLLIPOP)
+	private void setHotspot(float x, float y) {
+		if (itemBackground != null && Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
+			itemBackground.setHotspot(x, y);
+		}
+	}
+
+	@TargetApi(Build.VERSION_CODES.JELLY_BEAN_MR1)
+	private boolean isLayoutRtl() {
+		return Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR1
+				&& getLayoutDirection() == View.LAYOUT_DIRECTION_RTL;
+	}
+
+	@Override
+	protected boolean verifyDrawable(Drawable who) {
+		return who == itemBackground || super.verifyDrawable(who);
+	}
+
+	@Override
+	public void jumpDrawablesToCurrentState() {
+		super.jumpDrawablesToCurrentState();
+		if (itemBackground != null) {
+			itemBackground.jumpToCurrentState();
+		}
+	}
+
+	private int dpToPx(int dp) {
+		return Math.round(dp * getResources().getDisplayMetrics().density);
+	}
+
+	/**
+	 * Exposes every item to accessibility services as a virtual view, with the item's index as
+	 * its id, and moves the keyboard focus between the items.
+	 */
+	private final class MenuAccessibilityHelper extends ExploreByTouchHelper {
+
+		private final Rect rowBounds = new Rect();
+
+		MenuAccessibilityHelper() {
+			super(SheetMenuView.this);
+		}
+
+		@Override
+		protected int getVirtualViewAt(float x, float y) {
+			int index = findRow(x, y);
+			return index >= 0 ? index : HOST_ID;
+		}
+
+		@Override
+		protected void getVisibleVirtualViews(List<Integer> virtualViewIds) {
+			for (int i = 0; i < items.size(); i++) {
+				virtualViewIds.add(i);
+			}
+		}
+
+		@Override
+		protected void onPopulateEventForVirtualView(int virtualViewId, AccessibilityEvent event) {
+			event.getText().add(items.get(virtualViewId).title);
+		}
+
+		@Override
+		protected void onPopulateNodeForVirtualView(int virtualViewId,
+				AccessibilityNodeInfoCompat node) {
+			Item item = items.get(virtualViewId);
+			node.setText(item.title);
+			node.setCheckable(item.isCheckable);
+			node.setChecked(item.isChecked);
+			node.setClickable(true);
+			node.addAction(AccessibilityNodeInfoCompat.ACTION_CLICK);
+			getRowBounds(virtualViewId, rowBounds);
+			node.setBoundsInParent(rowBounds);
+		}
+
+		@Override
+		protected boolean onPerformActionForVirtualView(int virtualViewId, int action,
+				Bundle arguments) {
+			if (action != AccessibilityNodeInfoCompat.ACTION_CLICK) {
+				return false;
+			}
+			playSoundEffect(SoundEffectConstants.CLICK);
+			performItemClick(virtualViewId);
+			return true;
+		}
+
+		@Override
+		protected void onVirtualViewKeyboardFocusChanged(int virtualViewId, boolean hasFocus) {
+			if (hasFocus) {
+				setFocusedRow(virtualViewId);
+			} else if (focusedIndex == virtualViewId) {
+				setFocusedRow(-1);
+			}
+		}
+	}
+
+	/**
+	 * An item of the menu and where it is drawn.
+	 */
+	private static final class Item {
+		int id;
+		CharSequence title;
+		Drawable icon;
+		boolean isCheckable;
+		boolean isChecked;
+		float titleWidth;
+		CharSequence displayTitle;
+		float textX;
+	}
+}
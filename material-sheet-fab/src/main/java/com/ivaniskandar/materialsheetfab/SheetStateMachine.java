@@ -0,0 +1,117 @@
+package com.ivaniskandar.materialsheetfab;
+
+/**
+ * Decides what happens to requests to show and hide the sheet, collapsing requests made during a
+ * transition into the final state they ask for.
+ *
+ * The sheet is always in one of four states. Requests made while a transition runs only change
+ * the state the sheet should end up in, so when the transition ends there is at most one
+ * follow-up transition, however many requests were made:
+ *
+ * <pre>
+ * state     show request            hide request
+ * HIDDEN    start showing           ignored
+ * SHOWING   cancel a pending hide   hide when shown
+ * SHOWN     ignored                 start hiding
+ * HIDING    show when hidden        cancel a pending show
+ * </pre>
+ *
+ * This class doesn't animate anything, the controller starts and reports the transitions.
+ */
+public class SheetStateMachine {
+
+	public enum State {
+		HIDDEN, SHOWING, SHOWN, HIDING
+	}
+
+	/**
+	 * What happened to a request.
+	 */
+	public enum Outcome {
+		/** A transition has to be started. */
+		STARTED,
+		/** The request will be handled when the running transition ends. */
+		DEFERRED,
+		/** The sheet already is or will be in the requested state. */
+		IGNORED
+	}
+
+	private State state = State.HIDDEN;
+	// State to go to after the running transition, null to stay in its end state
+	private State pendingTarget;
+
+	/**
+	 * Requests the sheet to be shown.
+	 */
+	public Outcome requestShow() {
+		return request(State.SHOWN);
+	}
+
+	/**
+	 * Requests the sheet to be hidden.
+	 */
+	public Outcome requestHide() {
+		return request(State.HIDDEN);
+	}
+
+	private Outcome request(State target) {
+		if (!isTransitioning()) {
+			if (state == target) {
+				return Outcome.IGNORED;
+			}
+			state = transitionTo(target);
+			return Outcome.STARTED;
+		}
+		// The latest request decides where the sheet ends up
+		if (target == getTransitionTarget()) {
+			pendingTarget = null;
+			return Outcome.IGNORED;
+		}
+		pendingTarget = target;
+		return Outcome.DEFERRED;
+	}
+
+	/**
+	 * Called when the running transition ends.
+	 *
+	 * @return Whether a deferred request started another transition, see {@link #getState()}
+	 *         for which one.
+	 * @throws IllegalStateException If no transition is running.
+	 */
+	public boolean onTransitionEnded() {
+		if (!isTransitioning()) {
+			throw new IllegalStateException("No transition is running in state " + state);
+		}
+		state = getTransitionTarget();
+		State target = pendingTarget;
+		pendingTarget = null;
+		if (target == null || target == state) {
+			return false;
+		}
+		state = transitionTo(target);
+		return true;
+	}
+
+	public State getState() {
+		return state;
+	}
+
+	/**
+	 * Returns the state requested for after the running transition, or null if there is none.
+	 */
+	public State getPendingTarget() {
+		return pendingTarget;
+	}
+
+	public boolean isTransitioning() {
+		return state == State.SHOWING || state == State.HIDING;
+	}
+
+	private State getTransitionTarget() {
+		return state == State.SHOWING ? State.SHOWN : State.HIDDEN;
+	}
+
+	private static State transitionTo(State target) {
+		return target == State.SHOWN ? State.SHOWING : State.HIDING;
+	}
+}
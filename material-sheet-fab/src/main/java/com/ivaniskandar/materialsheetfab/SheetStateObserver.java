@@ -0,0 +1,18 @@
+package com.ivaniskandar.materialsheetfab;
+
+/**
+ * Observer of a {@link SheetStateStream}.
+ */
+public abstract class SheetStateObserver {
+
+	/**
+	 * Called with the latest state of the sheet. Values published while the observer was busy
+	 * are skipped, so it may not see every frame of a transition, but it always ends up with the
+	 * state the sheet settled in.
+	 *
+	 * @param state State of the sheet.
+	 * @param progress How much of the sheet is revealed, from 0 when hidden to 1 when shown.
+	 */
+	public abstract void onSheetStateChanged(SheetStateMachine.State state, float progress);
+
+}
@@ -0,0 +1,165 @@
+package com.ivaniskandar.materialsheetfab;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Stream of the sheet's state and reveal progress, published by {@link MaterialSheetFab} on
+ * every frame of a transition.
+ *
+ * Updates are conflated: only the latest value is kept, so an observer that falls behind skips
+ * straight to it instead of working through a backlog. The value is packed into a single long
+ * so that it can be read from any thread without a lock and without allocating, see
+ * {@link #get()}.
+ *
+ * Observers can be added and removed from any thread. The observer list is copied when it
+ * changes, so publishing never waits for a subscription and doesn't allocate.
+ */
+public class SheetStateStream {
+
+	private static final SheetStateMachine.State[] STATES = SheetStateMachine.State.values();
+	private static final Subscription[] NO_SUBSCRIPTIONS = new Subscription[0];
+
+	private final Object subscriptionLock = new Object();
+	private volatile Subscription[] subscriptions = NO_SUBSCRIPTIONS;
+	private volatile long value = pack(SheetStateMachine.State.HIDDEN, 0);
+
+	/**
+	 * Adds an observer that is called on the main thread right after each change. Must be called
+	 * from the main thread.
+	 *
+	 * @param observer The observer, called with the current value right away.
+	 */
+	public void addObserver(SheetStateObserver observer) {
+		addObserver(observer, null);
+	}
+
+	/**
+	 * Adds an observer that is called on an executor. At most one call is queued on the
+	 * executor at a time, and it delivers whatever value is the latest when it runs.
+	 *
+	 * @param observer The observer, called with the current value as soon as the executor runs.
+	 * @param executor Executor the observer is called on, or null to call it on the main thread
+	 *            right after each change, in which case this must be called from the main thread.
+	 */
+	public void addObserver(SheetStateObserver observer, Executor executor) {
+		Subscription subscription = new Subscription(observer, executor);
+		synchronized (subscriptionLock) {
+			Subscription[] old = subscriptions;
+			Subscription[] updated = new Subscription[old.length + 1];
+			System.arraycopy(old, 0, updated, 0, old.length);
+			updated[old.length] = subscription;
+			subscriptions = updated;
+		}
+		subscription.notifyChanged();
+	}
+
+	/**
+	 * Removes an observer. A call that is already queued on its executor is dropped.
+	 */
+	public void removeObserver(SheetStateObserver observer) {
+		synchronized (subscriptionLock) {
+			Subscription[] old = subscriptions;
+			for (int i = 0; i < old.length; i++) {
+				if (old[i].observer == observer) {
+					old[i].isRemoved = true;
+					Subscription[] updated = old.length == 1 ? NO_SUBSCRIPTIONS
+							: new Subscription[old.length - 1];
+					System.arraycopy(old, 0, updated, 0, i);
+					System.arraycopy(old, i + 1, updated, i, old.length - i - 1);
+					subscriptions = updated;
+					return;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns the latest value, packed into a long. Read it with {@link #getState(long)} and
+	 * {@link #getProgress(long)} so that the state and the progress belong together.
+	 */
+	public long get() {
+		return value;
+	}
+
+	public SheetStateMachine.State getState() {
+		return getState(value);
+	}
+
+	public float getProgress() {
+		return getProgress(value);
+	}
+
+	public static SheetStateMachine.State getState(long value) {
+		return STATES[(int) (value >>> 32)];
+	}
+
+	public static float getProgress(long value) {
+		return Float.intBitsToFloat((int) value);
+	}
+
+	/**
+	 * Publishes a new value and notifies the observers. Must be called from the main thread.
+	 */
+	void publish(SheetStateMachine.State state, float progress) {
+		long packed = pack(state, progress);
+		if (packed == value) {
+			return;
+		}
+		value = packed;
+		// Observers added or removed while notifying get the next value
+		Subscription[] current = subscriptions;
+		for (Subscription subscription : current) {
+			subscription.notifyChanged();
+		}
+	}
+
+	private static long pack(SheetStateMachine.State state, float progress) {
+		return ((long) state.ordinal() << 32) | (Float.floatToIntBits(progress) & 0xffffffffL);
+	}
+
+	/**
+	 * Observer with the executor it is called on and the last value it was given.
+	 */
+	private final class Subscription implements Runnable {
+
+		final SheetStateObserver observer;
+		private final Executor executor;
+		private final AtomicBoolean isQueued = new AtomicBoolean();
+		private volatile long delivered = -1;
+		volatile boolean isRemoved;
+
+		Subscription(SheetStateObserver observer, Executor executor) {
+			this.observer = observer;
+			this.executor = executor;
+		}
+
+		void notifyChanged() {
+			if (executor == null) {
+				deliver();
+			} else if (isQueued.compareAndSet(false, true)) {
+				executor.execute(this);
+			}
+		}
+
+		@Override
+		public void run() {
+			deliver();
+			isQueued.set(false);
+			// Queue again for a value published while the observer was busy, so that the latest
+			// value is never missed and the observer is never called twice at once
+			if (!isRemoved && value != delivered) {
+				notifyChanged();
+			}
+		}
+
+		private void deliver() {
+			long latest = value;
+			if (isRemoved || latest == delivered) {
+				return;
+			}
+			delivered = latest;
+			observer.onSheetStateChanged(getState(latest), getProgress(latest));
+		}
+	}
+}
@@ -0,0 +1,77 @@
+package com.ivaniskandar.materialsheetfab;
+
+import android.annotation.TargetApi;
+import android.os.Build;
+import android.os.Trace;
+
+import java.lang.reflect.Method;
+
+/**
+ * Tracer that writes sections to the system trace with {@link Trace}, so they show up in
+ * systrace and Perfetto next to the RenderThread and input events.
+ *
+ * Synchronous sections are written on Android 4.3+ and asynchronous sections on Android 10+.
+ * Older versions ignore them.
+ */
+public final class SystemTracer implements Tracer {
+
+	private static final SystemTracer INSTANCE = new SystemTracer();
+
+	private Method beginAsyncSectionMethod;
+	private Method endAsyncSectionMethod;
+
+	private SystemTracer() {
+		if (Build.VERSION.SDK_INT >= 29) {
+			try {
+				// Only public from Android 10, newer than the SDK this is compiled against
+				beginAsyncSectionMethod = Trace.class.getMethod("beginAsyncSection", String.class,
+						int.class);
+				endAsyncSectionMethod = Trace.class.getMethod("endAsyncSection", String.class,
+						int.class);
+			} catch (NoSuchMethodException e) {
+				// Asynchronous sections are ignored
+			}
+		}
+	}
+
+	public static SystemTracer getInstance() {
+		return INSTANCE;
+	}
+
+	@TargetApi(Build.VERSION_CODES.JELLY_BEAN_MR2)
+	@Override
+	public void beginSection(String name) {
+		if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR2) {
+			Trace.beginSection(name);
+		}
+	}
+
+	@TargetApi(Build.VERSION_CODES.JELLY_BEAN_MR2)
+	@Override
+	public void endSection() {
+		if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR2) {
+			Trace.endSection();
+		}
+	}
+
+	@Override
+	public void beginAsyncSection(String name, int cookie) {
+		invoke(beginAsyncSectionMethod, name, cookie);
+	}
+
+	@Override
+	public void endAsyncSection(String name, int cookie) {
+		invoke(endAsyncSectionMethod, name, cookie);
+	}
+
+	private static void invoke(Method method, String name, int cookie) {
+		if (method == null) {
+			return;
+		}
+		try {
+			method.invoke(null, name, cookie);
+		} catch (Exception e) {
+			// The section is left out of the trace
+		}
+	}
+}
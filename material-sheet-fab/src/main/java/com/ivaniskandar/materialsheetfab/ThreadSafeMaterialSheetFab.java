@@ -0,0 +1,165 @@
+package com.ivaniskandar.materialsheetfab;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import com.ivaniskandar.materialsheetfab.animations.AnimationClock;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lets any thread control a {@link MaterialSheetFab}, which otherwise must only be used from the
+ * main thread.
+ *
+ * Commands are not run right away. Only the latest sheet command and the latest FAB command are
+ * kept, and they are applied together on the main thread at the next frame, in the order they
+ * were sent. {@link #hideSheetThenFab()} is both a sheet and a FAB command, so e.g. a later
+ * {@link #showSheet()} replaces its sheet hide but the FAB is still hidden first. Many commands
+ * sent between two frames therefore cost one transition at most. Sending a command never blocks
+ * and the main thread never takes a lock.
+ */
+public class ThreadSafeMaterialSheetFab {
+
+	// Sheet commands are packed into a long with the order they were sent in
+	private static final int SHEET_NONE = 0;
+	private static final int SHEET_SHOW = 1;
+	private static final int SHEET_HIDE = 2;
+	private static final int SHEET_ACTION_BITS = 2;
+	private static final long SHEET_ACTION_MASK = (1 << SHEET_ACTION_BITS) - 1;
+
+	// FAB commands are packed into a long with the translation X and Y float bits. These X bits
+	// are NaNs that Float.floatToIntBits() never returns, so they can't clash with a translation.
+	private static final int FAB_NONE_BITS = 0x7fc00001;
+	private static final int FAB_HIDE_BITS = 0x7fc00002;
+	private static final long FAB_NONE = (long) FAB_NONE_BITS << 32;
+	private static final long FAB_HIDE = (long) FAB_HIDE_BITS << 32;
+
+	private final MaterialSheetFab<?> materialSheetFab;
+	private final AnimationClock clock;
+	private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+	private final AtomicLong nextOrder = new AtomicLong(1);
+	private final AtomicLong sheetCommand = new AtomicLong(SHEET_NONE);
+	private final AtomicLong fabCommand = new AtomicLong(FAB_NONE);
+	// Order of the latest FAB command, which has no room left in fabCommand
+	private final AtomicLong fabOrder = new AtomicLong();
+	private final AtomicBoolean isDrainScheduled = new AtomicBoolean();
+
+	// Posted from other threads to get onto the main thread
+	private final Runnable scheduleDrain = new Runnable() {
+		@Override
+		public void run() {
+			clock.postFrameCallback(drain);
+		}
+	};
+
+	// Applies the latest commands on the main thread at the start of a frame
+	private final AnimationClock.FrameCallback drain = new AnimationClock.FrameCallback() {
+		@Override
+		public void doFrame(long frameTimeMillis) {
+			// Commands sent from now on schedule another drain
+			isDrainScheduled.set(false);
+			long sheet = sheetCommand.getAndSet(SHEET_NONE);
+			long fab = fabCommand.getAndSet(FAB_NONE);
+			int sheetAction = (int) (sheet & SHEET_ACTION_MASK);
+			boolean isSheetFirst = (sheet >>> SHEET_ACTION_BITS) < fabOrder.get();
+
+			// hideSheetThenFab() hides the sheet itself. If the sheet were already being hidden,
+			// it would not wait for the sheet and would never hide the FAB.
+			if (fab == FAB_HIDE && sheetAction == SHEET_HIDE && isSheetFirst) {
+				sheetAction = SHEET_NONE;
+			}
+			if (isSheetFirst) {
+				applySheetCommand(sheetAction);
+				applyFabCommand(fab);
+			} else {
+				applyFabCommand(fab);
+				applySheetCommand(sheetAction);
+			}
+		}
+	};
+
+	/**
+	 * Must be created on the main thread, after the controller's animation clock is set.
+	 *
+	 * @param materialSheetFab Controller to send the commands to.
+	 */
+	public ThreadSafeMaterialSheetFab(MaterialSheetFab<?> materialSheetFab) {
+		this.materialSheetFab = materialSheetFab;
+		this.clock = materialSheetFab.getAnimationClock();
+	}
+
+	/**
+	 * Shows the sheet. Replaces a pending show or hide of the sheet.
+	 */
+	public void showSheet() {
+		setSheetCommand(SHEET_SHOW);
+		scheduleDrain();
+	}
+
+	/**
+	 * Hides the sheet. Replaces a pending show or hide of the sheet.
+	 */
+	public void hideSheet() {
+		setSheetCommand(SHEET_HIDE);
+		scheduleDrain();
+	}
+
+	/**
+	 * Shows the FAB and sets the FAB's translation. Replaces a pending FAB command.
+	 *
+	 * @param translationX translation X value
+	 * @param translationY translation Y value
+	 */
+	public void showFab(float translationX, float translationY) {
+		setFabCommand(((long) Float.floatToIntBits(translationX) << 32)
+				| (Float.floatToIntBits(translationY) & 0xffffffffL));
+		scheduleDrain();
+	}
+
+	/**
+	 * Hides the sheet (if visible) and then hides the FAB. Replaces pending sheet and FAB
+	 * commands.
+	 */
+	public void hideSheetThenFab() {
+		// Still hide the sheet if a later FAB command replaces this one
+		setSheetCommand(SHEET_HIDE);
+		setFabCommand(FAB_HIDE);
+		scheduleDrain();
+	}
+
+	private void setSheetCommand(int action) {
+		sheetCommand.set(nextOrder.getAndIncrement() << SHEET_ACTION_BITS | action);
+	}
+
+	private void setFabCommand(long command) {
+		// Commands sent at the same time from several threads have no order, so the order and
+		// the command don't need to be set together
+		fabOrder.set(nextOrder.getAndIncrement());
+		fabCommand.set(command);
+	}
+
+	private void scheduleDrain() {
+		if (isDrainScheduled.compareAndSet(false, true)) {
+			mainHandler.post(scheduleDrain);
+		}
+	}
+
+	private void applySheetCommand(int action) {
+		if (action == SHEET_SHOW) {
+			materialSheetFab.showSheet();
+		} else if (action == SHEET_HIDE) {
+			materialSheetFab.hideSheet();
+		}
+	}
+
+	private void applyFabCommand(long command) {
+		if (command == FAB_HIDE) {
+			materialSheetFab.hideSheetThenFab();
+		} else if (command != FAB_NONE) {
+			materialSheetFab.showFab(Float.intBitsToFloat((int) (command >>> 32)),
+					Float.intBitsToFloat((int) command));
+		}
+	}
+}
@@ -0,0 +1,61 @@
+package com.ivaniskandar.materialsheetfab;
+
+/**
+ * Receives the start and end of the sections of work done by {@link MaterialSheetFab}, e.g. to
+ * show them in a system trace.
+ *
+ * Synchronous sections start and end on the main thread within one call and are nested.
+ * Asynchronous sections span several frames, such as a whole sheet transition, and are matched
+ * by their name and cookie.
+ */
+public interface Tracer {
+
+	/**
+	 * Tracer that ignores all sections. Used by default.
+	 */
+	Tracer NONE = new Tracer() {
+		@Override
+		public void beginSection(String name) {
+		}
+
+		@Override
+		public void endSection() {
+		}
+
+		@Override
+		public void beginAsyncSection(String name, int cookie) {
+		}
+
+		@Override
+		public void endAsyncSection(String name, int cookie) {
+		}
+	};
+
+	/**
+	 * Called when a synchronous section starts.
+	 *
+	 * @param name Name of the section.
+	 */
+	void beginSection(String name);
+
+	/**
+	 * Called when the most recently started synchronous section ends.
+	 */
+	void endSection();
+
+	/**
+	 * Called when an asynchronous section starts.
+	 *
+	 * @param name Name of the section.
+	 * @param cookie Number telling apart sections with the same name.
+	 */
+	void beginAsyncSection(String name, int cookie);
+
+	/**
+	 * Called when an asynchronous section ends.
+	 *
+	 * @param name Name of the section.
+	 * @param cookie Cookie the section was started with.
+	 */
+	void endAsyncSection(String name, int cookie);
+}
@@ -0,0 +1,46 @@
+package com.ivaniskandar.materialsheetfab.animations;
+
+/**
+ * Source of time and frames for the animations. Lets the animations be stepped frame by frame,
+ * e.g. with {@link ManualAnimationClock} in tests and benchmarks.
+ */
+public interface AnimationClock {
+
+	/**
+	 * Returns the current animation time in milliseconds.
+	 */
+	long now();
+
+	/**
+	 * Runs the callback once on the next frame.
+	 */
+	void postFrameCallback(FrameCallback callback);
+
+	/**
+	 * Removes a callback that was posted with {@link #postFrameCallback(FrameCallback)}.
+	 */
+	void removeFrameCallback(FrameCallback callback);
+
+	/**
+	 * Runs the runnable once after the delay.
+	 */
+	void postDelayed(Runnable runnable, long delayMillis);
+
+	/**
+	 * Removes a runnable that was posted with {@link #postDelayed(Runnable, long)}.
+	 */
+	void removeCallbacks(Runnable runnable);
+
+	/**
+	 * Callback for a new frame.
+	 */
+	interface FrameCallback {
+
+		/**
+		 * Called when a new frame is being rendered.
+		 *
+		 * @param frameTimeMillis Time of the frame in milliseconds, in the clock's time base.
+		 */
+		void doFrame(long frameTimeMillis);
+	}
+}
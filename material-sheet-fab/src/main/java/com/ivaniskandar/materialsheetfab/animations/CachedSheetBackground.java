@@ -0,0 +1,188 @@
+package com.ivaniskandar.materialsheetfab.animations;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.ColorFilter;
+import android.graphics.Paint;
+import android.graphics.PixelFormat;
+import android.graphics.Rect;
+import android.graphics.RectF;
+import android.graphics.drawable.Drawable;
+
+/**
+ * Wraps a pre-Lollipop CardView's background so that the card's shadow can be drawn from a bitmap
+ * while the sheet morphs. The card itself is then drawn as a plain rounded rect on top, so that
+ * the card's color can still be animated. Otherwise the live background is drawn.
+ *
+ * The wrapper is set as the sheet's background once and kept, so that starting and stopping the
+ * cache doesn't change the sheet's background and lay it out again.
+ */
+class CachedSheetBackground extends Drawable implements Drawable.Callback {
+
+	private final Drawable liveBackground;
+	private Bitmap shadow;
+	private final RectF cardBounds = new RectF();
+	private final RectF drawBounds = new RectF();
+	private float cornerRadius;
+	private final Paint shadowPaint = new Paint(Paint.FILTER_BITMAP_FLAG);
+	private final Paint cardPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+	private int color;
+	private int alpha = 255;
+
+	/**
+	 * Set this drawable as the callback of the live background once it has been set as the
+	 * view's background, since the view clears the callback of the background it replaces.
+	 *
+	 * @param liveBackground The card's own background.
+	 */
+	CachedSheetBackground(Drawable liveBackground) {
+		this.liveBackground = liveBackground;
+	}
+
+	Drawable getLiveBackground() {
+		return liveBackground;
+	}
+
+	/**
+	 * Starts drawing the cached shadow and a plain card instead of the live background.
+	 *
+	 * @param shadow The card's shadow, drawn at the size of the card's background.
+	 * @param cardBounds Bounds of the card within the shadow bitmap.
+	 * @param cornerRadius Corner radius of the card.
+	 * @param color Color of the card.
+	 */
+	void startCaching(Bitmap shadow, RectF cardBounds, float cornerRadius, int color) {
+		this.shadow = shadow;
+		this.cardBounds.set(cardBounds);
+		this.cornerRadius = cornerRadius;
+		this.color = color;
+		updateCardPaint();
+		invalidateSelf();
+	}
+
+	/**
+	 * Goes back to drawing the live background and lets go of the shadow bitmap.
+	 */
+	void stopCaching() {
+		if (shadow != null) {
+			shadow = null;
+			invalidateSelf();
+		}
+	}
+
+	boolean isCaching() {
+		return shadow != null;
+	}
+
+	void setColor(int color) {
+		if (this.color != color) {
+			this.color = color;
+			updateCardPaint();
+			if (shadow != null) {
+				invalidateSelf();
+			}
+		}
+	}
+
+	private void updateCardPaint() {
+		// Modulate the color's own alpha with the drawable's alpha
+		cardPaint.setColor((color & 0x00ffffff) | (((color >>> 24) * alpha / 255) << 24));
+	}
+
+	@Override
+	public void draw(Canvas canvas) {
+		if (shadow == null) {
+			liveBackground.draw(canvas);
+			return;
+		}
+		float left = getBounds().left;
+		float top = getBounds().top;
+		canvas.drawBitmap(shadow, left, top, shadowPaint);
+		drawBounds.set(cardBounds);
+		drawBounds.offset(left, top);
+		canvas.drawRoundRect(drawBounds, cornerRadius, cornerRadius, cardPaint);
+	}
+
+	@Override
+	protected void onBoundsChange(Rect bounds) {
+		liveBackground.setBounds(bounds);
+	}
+
+	@Override
+	public boolean isStateful() {
+		return liveBackground.isStateful();
+	}
+
+	@Override
+	protected boolean onStateChange(int[] state) {
+		return liveBackground.setState(state);
+	}
+
+	@Override
+	public boolean getPadding(Rect padding) {
+		// The card sets its padding itself, so setting this as the background leaves it alone
+		padding.setEmpty();
+		return false;
+	}
+
+	@Override
+	public int getMinimumWidth() {
+		return liveBackground.getMinimumWidth();
+	}
+
+	@Override
+	public int getMinimumHeight() {
+		return liveBackground.getMinimumHeight();
+	}
+
+	@Override
+	public int getIntrinsicWidth() {
+		return liveBackground.getIntrinsicWidth();
+	}
+
+	@Override
+	public int getIntrinsicHeight() {
+		return liveBackground.getIntrinsicHeight();
+	}
+
+	@Override
+	public void setAlpha(int alpha) {
+		this.alpha = alpha;
+		shadowPaint.setAlpha(alpha);
+		updateCardPaint();
+		liveBackground.setAlpha(alpha);
+		invalidateSelf();
+	}
+
+	@Override
+	public void setColorFilter(ColorFilter colorFilter) {
+		shadowPaint.setColorFilter(colorFilter);
+		cardPaint.setColorFilter(colorFilter);
+		liveBackground.setColorFilter(colorFilter);
+		invalidateSelf();
+	}
+
+	@Override
+	public int getOpacity() {
+		return PixelFormat.TRANSLUCENT;
+	}
+
+	// The card's own changes, e.g. of its color, reach the view through this drawable
+
+	@Override
+	public void invalidateDrawable(Drawable who) {
+		if (shadow == null) {
+			invalidateSelf();
+		}
+	}
+
+	@Override
+	public void scheduleDrawable(Drawable who, Runnable what, long when) {
+		scheduleSelf(what, when);
+	}
+
+	@Override
+	public void unscheduleDrawable(Drawable who, Runnable what) {
+		unscheduleSelf(what);
+	}
+}
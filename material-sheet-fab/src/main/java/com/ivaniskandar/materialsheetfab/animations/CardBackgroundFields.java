@@ -0,0 +1,67 @@
+package com.ivaniskandar.materialsheetfab.animations;
+
+import android.graphics.RectF;
+
+import java.lang.reflect.Field;
+
+/**
+ * Reads where the support CardView's pre-Lollipop background draws the card from the drawable's
+ * private fields. The fields are looked up by name and type, so a background without them (e.g.
+ * from another support library version) is detected and the shadow is left uncached.
+ */
+final class CardBackgroundFields {
+
+	static final String CARD_BOUNDS_FIELD = "mCardBounds";
+	static final String CORNER_RADIUS_FIELD = "mCornerRadius";
+
+	private final Field cardBounds;
+	private final Field cornerRadius;
+
+	private CardBackgroundFields(Field cardBounds, Field cornerRadius) {
+		this.cardBounds = cardBounds;
+		this.cornerRadius = cornerRadius;
+	}
+
+	/**
+	 * Looks up the fields of a background class.
+	 *
+	 * @return The fields, or null if the class doesn't have them.
+	 */
+	static CardBackgroundFields resolve(Class<?> backgroundClass) {
+		try {
+			Field cardBounds = backgroundClass.getDeclaredField(CARD_BOUNDS_FIELD);
+			Field cornerRadius = backgroundClass.getDeclaredField(CORNER_RADIUS_FIELD);
+			if (cardBounds.getType() != RectF.class || cornerRadius.getType() != float.class) {
+				return null;
+			}
+			cardBounds.setAccessible(true);
+			cornerRadius.setAccessible(true);
+			return new CardBackgroundFields(cardBounds, cornerRadius);
+		} catch (NoSuchFieldException | SecurityException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Returns the bounds of the card within the background's bounds, or null if they can't be
+	 * read.
+	 */
+	RectF getCardBounds(Object background) {
+		try {
+			return (RectF) cardBounds.get(background);
+		} catch (IllegalAccessException | IllegalArgumentException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Returns the corner radius of the card, or -1 if it can't be read.
+	 */
+	float getCornerRadius(Object background) {
+		try {
+			return cornerRadius.getFloat(background);
+		} catch (IllegalAccessException | IllegalArgumentException e) {
+			return -1;
+		}
+	}
+}
@@ -0,0 +1,36 @@
+package com.ivaniskandar.materialsheetfab.animations;
+
+/**
+ * Color helpers that work on packed ARGB ints without allocating.
+ */
+public final class ColorUtils {
+
+	private ColorUtils() {
+	}
+
+	/**
+	 * Blends two ARGB colors channel by channel.
+	 *
+	 * @param from Color at fraction 0.
+	 * @param to Color at fraction 1.
+	 * @param fraction Blend fraction, clamped to [0, 1].
+	 * @return The blended color.
+	 */
+	public static int blendArgb(int from, int to, float fraction) {
+		if (fraction <= 0) {
+			return from;
+		}
+		if (fraction >= 1) {
+			return to;
+		}
+		int a = blendChannel((from >>> 24) & 0xff, (to >>> 24) & 0xff, fraction);
+		int r = blendChannel((from >> 16) & 0xff, (to >> 16) & 0xff, fraction);
+		int g = blendChannel((from >> 8) & 0xff, (to >> 8) & 0xff, fraction);
+		int b = blendChannel(from & 0xff, to & 0xff, fraction);
+		return (a << 24) | (r << 16) | (g << 8) | b;
+	}
+
+	private static int blendChannel(int from, int to, float fraction) {
+		return from + Math.round((to - from) * fraction);
+	}
+}
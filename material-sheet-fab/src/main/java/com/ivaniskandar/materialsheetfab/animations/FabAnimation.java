@@ -1,11 +1,7 @@
 package com.ivaniskandar.materialsheetfab.animations;
 
 import android.view.View;
-import android.view.animation.AlphaAnimation;
-import android.view.animation.Animation;
-import android.view.animation.AnimationSet;
 import android.view.animation.Interpolator;
-import android.view.animation.ScaleAnimation;
 
 /**
  * Created by Gordon Wong on 7/9/2015.
@@ -16,51 +12,60 @@ public class FabAnimation {
 
 	protected View fab;
 	protected Interpolator interpolator;
+	private final FrameAnimator animator;
+	private float pivotX;
+	private float pivotY;
+	private float startScale;
+	private float endScale;
+	private float startAlpha;
+	private float endAlpha;
+
+	private final ProgressListener morphListener = new ProgressListener() {
+		@Override
+		public void onProgress(float progress) {
+			float scale = startScale + (endScale - startScale) * progress;
+			fab.setScaleX(scale);
+			fab.setScaleY(scale);
+			fab.setAlpha(startAlpha + (endAlpha - startAlpha) * progress);
+		}
+	};
 
 	public FabAnimation(View fab, Interpolator interpolator) {
+		this(fab, interpolator, SystemAnimationClock.getInstance());
+	}
+
+	public FabAnimation(View fab, Interpolator interpolator, AnimationClock clock) {
 		this.fab = fab;
 		this.interpolator = interpolator;
+		animator = new FrameAnimator(clock);
 	}
 
 	/**
-	 * Animates the FAB as if the FAB is morphing into a sheet.
+	 * Animates the FAB as if the FAB is morphing into a sheet. The FAB is made invisible when
+	 * the animation ends.
 	 *
 	 * @param duration Duration of the animation in milliseconds. Use 0 for no animation.
 	 * @param listener Listener for animation events.
 	 */
 	public void morphIntoSheet(long duration, final AnimationListener listener) {
-		// Setup animation
-		Animation fadeIn = new AlphaAnimation(1, 0);
-		Animation scale = new ScaleAnimation(1f, 2f, 1f, 2f,
-				Animation.RELATIVE_TO_SELF, 1, Animation.RELATIVE_TO_SELF, 1);
-		AnimationSet animationSet = new AnimationSet(true);
-		animationSet.addAnimation(fadeIn);
-		animationSet.addAnimation(scale);
-		animationSet.setDuration(duration);
-		animationSet.setInterpolator(interpolator);
-		animationSet.setAnimationListener(new Animation.AnimationListener() {
+		startMorphAnim(1f, 2f, 1, 0, duration, new AnimationListener() {
 			@Override
-			public void onAnimationStart(Animation animation) {
+			public void onStart() {
 				if (listener != null) {
 					listener.onStart();
 				}
 			}
 
 			@Override
-			public void onAnimationEnd(Animation animation) {
+			public void onEnd() {
+				// Hide FAB and restore its properties for the next time it is shown
+				fab.setVisibility(View.INVISIBLE);
+				resetFab();
 				if (listener != null) {
 					listener.onEnd();
 				}
 			}
-
-			@Override
-			public void onAnimationRepeat(Animation animation) {
-
-			}
 		});
-
-		// Start animation
-		fab.startAnimation(animationSet);
 	}
 
 	/**
@@ -71,37 +76,50 @@ public class FabAnimation {
 	 */
 	public void morphFromSheet(long duration, final AnimationListener listener) {
 		fab.setVisibility(View.VISIBLE);
-        // Setup animation
-        Animation fadeIn = new AlphaAnimation(0, 1);
-        Animation scale = new ScaleAnimation(2f, 1f, 2f, 1f,
-                Animation.RELATIVE_TO_SELF, 1, Animation.RELATIVE_TO_SELF, 1);
-        AnimationSet animationSet = new AnimationSet(true);
-        animationSet.addAnimation(fadeIn);
-        animationSet.addAnimation(scale);
-        animationSet.setDuration(duration);
-        animationSet.setInterpolator(interpolator);
-        animationSet.setAnimationListener(new Animation.AnimationListener() {
-            @Override
-            public void onAnimationStart(Animation animation) {
-                if (listener != null) {
-                    listener.onStart();
-                }
-            }
+		startMorphAnim(2f, 1f, 0, 1, duration, new AnimationListener() {
+			@Override
+			public void onStart() {
+				if (listener != null) {
+					listener.onStart();
+				}
+			}
+
+			@Override
+			public void onEnd() {
+				resetFab();
+				if (listener != null) {
+					listener.onEnd();
+				}
+			}
+		});
+	}
 
-            @Override
-            public void onAnimationEnd(Animation animation) {
-                if (listener != null) {
-                    listener.onEnd();
-                }
-            }
+	protected void startMorphAnim(float startScale, float endScale, float startAlpha,
+			float endAlpha, long duration, AnimationListener listener) {
+		if (animator.isRunning()) {
+			animator.cancel();
+			resetFab();
+		}
+		this.startScale = startScale;
+		this.endScale = endScale;
+		this.startAlpha = startAlpha;
+		this.endAlpha = endAlpha;
 
-            @Override
-            public void onAnimationRepeat(Animation animation) {
+		// Scale from the bottom right corner, keeping the FAB's own pivot to restore later
+		pivotX = fab.getPivotX();
+		pivotY = fab.getPivotY();
+		fab.setPivotX(fab.getWidth());
+		fab.setPivotY(fab.getHeight());
 
-            }
-        });
+		// Start animation
+		animator.start(duration, interpolator, morphListener, listener);
+	}
 
-        // Start animation
-        fab.startAnimation(animationSet);
+	private void resetFab() {
+		fab.setScaleX(1);
+		fab.setScaleY(1);
+		fab.setAlpha(1);
+		fab.setPivotX(pivotX);
+		fab.setPivotY(pivotY);
 	}
 }
@@ -0,0 +1,90 @@
+package com.ivaniskandar.materialsheetfab.animations;
+
+import android.view.animation.Interpolator;
+
+/**
+ * Reusable animator that runs from 0 to 1 on the frames of an {@link AnimationClock}.
+ */
+public class FrameAnimator implements AnimationClock.FrameCallback {
+
+	private final AnimationClock clock;
+	private long startTime;
+	private long duration;
+	private Interpolator interpolator;
+	private ProgressListener progressListener;
+	private AnimationListener listener;
+	private boolean isRunning;
+
+	public FrameAnimator(AnimationClock clock) {
+		this.clock = clock;
+	}
+
+	/**
+	 * Starts the animator, canceling it first if it is running. The progress listener is called
+	 * with the starting progress right away.
+	 *
+	 * @param duration Duration of the animation in milliseconds. Use 0 for no animation.
+	 * @param interpolator Interpolator applied to the progress, or null for linear progress.
+	 * @param progressListener Listener that receives the interpolated progress on every frame.
+	 * @param listener Listener for animation events.
+	 */
+	public void start(long duration, Interpolator interpolator, ProgressListener progressListener,
+			AnimationListener listener) {
+		cancel();
+		this.duration = duration;
+		this.interpolator = interpolator;
+		this.progressListener = progressListener;
+		this.listener = listener;
+		startTime = clock.now();
+		isRunning = true;
+		if (listener != null) {
+			listener.onStart();
+		}
+		if (duration <= 0) {
+			finish();
+			return;
+		}
+		progressListener.onProgress(interpolate(0));
+		clock.postFrameCallback(this);
+	}
+
+	/**
+	 * Stops the animator where it is without notifying the end listener.
+	 */
+	public void cancel() {
+		if (isRunning) {
+			isRunning = false;
+			clock.removeFrameCallback(this);
+		}
+	}
+
+	public boolean isRunning() {
+		return isRunning;
+	}
+
+	@Override
+	public void doFrame(long frameTimeMillis) {
+		if (!isRunning) {
+			return;
+		}
+		float fraction = (float) (frameTimeMillis - startTime) / duration;
+		if (fraction >= 1) {
+			finish();
+			return;
+		}
+		progressListener.onProgress(interpolate(Math.max(0, fraction)));
+		clock.postFrameCallback(this);
+	}
+
+	private void finish() {
+		isRunning = false;
+		progressListener.onProgress(interpolate(1));
+		if (listener != null) {
+			listener.onEnd();
+		}
+	}
+
+	private float interpolate(float fraction) {
+		return interpolator != null ? interpolator.getInterpolation(fraction) : fraction;
+	}
+}
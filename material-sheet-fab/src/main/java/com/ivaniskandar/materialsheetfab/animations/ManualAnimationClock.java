@@ -0,0 +1,121 @@
+package com.ivaniskandar.materialsheetfab.animations;
+
+import java.util.ArrayList;
+
+/**
+ * Animation clock that only moves when told to. Useful for stepping the animations frame by
+ * frame in tests and benchmarks without a display.
+ */
+public class ManualAnimationClock implements AnimationClock {
+
+	private long now;
+	private final ArrayList<FrameCallback> frameCallbacks = new ArrayList<>();
+	private final ArrayList<FrameCallback> runningCallbacks = new ArrayList<>();
+	private final ArrayList<Runnable> delayedRunnables = new ArrayList<>();
+	private final ArrayList<Long> delayedTimes = new ArrayList<>();
+
+	public ManualAnimationClock() {
+		this(0);
+	}
+
+	/**
+	 * @param startTimeMillis Initial time of the clock in milliseconds.
+	 */
+	public ManualAnimationClock(long startTimeMillis) {
+		now = startTimeMillis;
+	}
+
+	@Override
+	public long now() {
+		return now;
+	}
+
+	@Override
+	public void postFrameCallback(FrameCallback callback) {
+		if (!frameCallbacks.contains(callback)) {
+			frameCallbacks.add(callback);
+		}
+	}
+
+	@Override
+	public void removeFrameCallback(FrameCallback callback) {
+		frameCallbacks.remove(callback);
+	}
+
+	@Override
+	public void postDelayed(Runnable runnable, long delayMillis) {
+		delayedRunnables.add(runnable);
+		delayedTimes.add(now + Math.max(0, delayMillis));
+	}
+
+	@Override
+	public void removeCallbacks(Runnable runnable) {
+		for (int i = delayedRunnables.size() - 1; i >= 0; i--) {
+			if (delayedRunnables.get(i) == runnable) {
+				delayedRunnables.remove(i);
+				delayedTimes.remove(i);
+			}
+		}
+	}
+
+	/**
+	 * Moves the clock forward and renders one frame at the new time. Delayed runnables that are
+	 * due run first, in the order they are due, followed by the frame callbacks.
+	 *
+	 * @param millis Time to move forward in milliseconds.
+	 */
+	public void advance(long millis) {
+		if (millis < 0) {
+			throw new IllegalArgumentException("Can't move the clock backwards");
+		}
+		now += millis;
+		runDueRunnables();
+		// Callbacks posted while rendering the frame run on the next frame
+		runningCallbacks.addAll(frameCallbacks);
+		frameCallbacks.clear();
+		for (int i = 0; i < runningCallbacks.size(); i++) {
+			runningCallbacks.get(i).doFrame(now);
+		}
+		runningCallbacks.clear();
+	}
+
+	/**
+	 * Renders frames at the given interval until nothing is left to run or the time limit is
+	 * reached.
+	 *
+	 * @param frameMillis Time between frames in milliseconds.
+	 * @param maxMillis Maximum time to move forward in milliseconds.
+	 */
+	public void advanceUntilIdle(long frameMillis, long maxMillis) {
+		long end = now + maxMillis;
+		while (hasPendingWork() && now + frameMillis <= end) {
+			advance(frameMillis);
+		}
+	}
+
+	/**
+	 * Returns whether any frame callbacks or delayed runnables are waiting to run.
+	 */
+	public boolean hasPendingWork() {
+		return !frameCallbacks.isEmpty() || !delayedRunnables.isEmpty();
+	}
+
+	private void runDueRunnables() {
+		while (true) {
+			// Find the runnable that is due first
+			int next = -1;
+			for (int i = 0; i < delayedTimes.size(); i++) {
+				long time = delayedTimes.get(i);
+				if (time <= now && (next == -1 || time < delayedTimes.get(next))) {
+					next = i;
+				}
+			}
+			if (next == -1) {
+				return;
+			}
+			Runnable runnable = delayedRunnables.remove(next);
+			delayedTimes.remove(next);
+			runnable.run();
+		}
+	}
+}
@@ -2,17 +2,17 @@ package com.ivaniskandar.materialsheetfab.animations;
 
 import java.lang.reflect.Method;
 
-import android.animation.Animator;
-import android.animation.AnimatorListenerAdapter;
-import android.animation.ArgbEvaluator;
-import android.animation.ValueAnimator;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Picture;
+import android.graphics.Rect;
+import android.graphics.RectF;
+import android.graphics.drawable.Drawable;
+import android.os.Build;
 import android.view.View;
 import android.view.ViewGroup;
-import android.view.animation.AlphaAnimation;
-import android.view.animation.Animation;
-import android.view.animation.AnimationSet;
 import android.view.animation.Interpolator;
-import android.view.animation.ScaleAnimation;
 
 import com.ivaniskandar.materialsheetfab.MaterialSheetFab.RevealXDirection;
 import com.ivaniskandar.materialsheetfab.MaterialSheetFab.RevealYDirection;
@@ -34,17 +34,80 @@ public class MaterialSheetAnimation {
 	private RevealXDirection revealXDirection;
 	private RevealYDirection revealYDirection;
 	private Method setCardBackgroundColor;
+	private Method getRadius;
 	private boolean isSupportCardView;
+	private boolean hasResolvedCardViewMethods;
+	private CardBackgroundFields cardBackgroundFields;
+	private boolean hasResolvedCardBackgroundFields;
+	private ProgressListener revealProgressListener;
+	private final Rect sheetBounds = new Rect();
+	private final Rect sheetInsets = new Rect();
+	private final int[] fabCoords = new int[2];
+	private final int[] sheetCoords = new int[2];
+
+	// Animators
+	private final FrameAnimator revealAnimator;
+	private final FrameAnimator colorAnimator;
+	private View revealView;
+	private boolean isExpanding;
+	private boolean isShrinking;
+	private View colorView;
+	private int startColor;
+	private int endColor;
+	private int cardColor;
+
+	// Cached shadow
+	private boolean isCachedShadowEnabled;
+	private CachedSheetBackground cachedBackground;
+
+	private final ProgressListener revealUpdateListener = new ProgressListener() {
+		@Override
+		public void onProgress(float progress) {
+			float reveal = isExpanding ? progress : 1 - progress;
+			revealView.setScaleX(reveal);
+			revealView.setScaleY(reveal);
+			revealView.setAlpha(reveal);
+			if (revealProgressListener != null) {
+				revealProgressListener.onProgress(reveal);
+			}
+		}
+	};
+
+	private final ProgressListener colorUpdateListener = new ProgressListener() {
+		@Override
+		public void onProgress(float progress) {
+			setBackgroundColor(colorView, ColorUtils.blendArgb(startColor, endColor, progress));
+		}
+	};
 
 	public MaterialSheetAnimation(View sheet, int sheetColor, int fabColor,
 			Interpolator interpolator) {
+		this(sheet, sheetColor, fabColor, interpolator, SystemAnimationClock.getInstance());
+	}
+
+	public MaterialSheetAnimation(View sheet, int sheetColor, int fabColor,
+			Interpolator interpolator, AnimationClock clock) {
+		revealAnimator = new FrameAnimator(clock);
+		colorAnimator = new FrameAnimator(clock);
 		this.sheet = sheet;
 		this.sheetColor = sheetColor;
 		this.fabColor = fabColor;
 		this.interpolator = interpolator;
+		cardColor = sheetColor;
 		// Default reveal direction is up and to the left (for FABs in the bottom right corner)
 		revealXDirection = RevealXDirection.LEFT;
 		revealYDirection = RevealYDirection.UP;
+	}
+
+	/**
+	 * Looks up the support CardView methods. Done lazily since reflection is slow and isn't
+	 * needed until the sheet is animated.
+	 */
+	private void resolveCardViewMethods() {
+		if (hasResolvedCardViewMethods) {
+			return;
+		}
+		hasResolvedCardViewMethods = true;
 		isSupportCardView = sheet.getClass().getName().equals(SUPPORT_CARDVIEW_CLASSNAME);
 		// Get setCardBackgroundColor() method
 		if (isSupportCardView) {
@@ -55,9 +118,28 @@ public class MaterialSheetAnimation {
 			} catch (Exception e) {
 				setCardBackgroundColor = null;
 			}
+			// Get getRadius() method
+			try {
+				getRadius = sheet.getClass().getDeclaredMethod("getRadius");
+			} catch (Exception e) {
+				getRadius = null;
+			}
 		}
 	}
 
+	/**
+	 * Looks up the fields of the support CardView's pre-Lollipop background that hold where the
+	 * card is drawn.
+	 */
+	private void resolveCardBackgroundFields(Drawable background) {
+		if (hasResolvedCardBackgroundFields) {
+			return;
+		}
+		hasResolvedCardBackgroundFields = true;
+		// Null if the background isn't the expected drawable, which leaves the shadow uncached
+		cardBackgroundFields = CardBackgroundFields.resolve(background.getClass());
+	}
+
 	/**
 	 * Aligns the sheet's position with the FAB.
 	 * 
@@ -70,11 +152,9 @@ public class MaterialSheetAnimation {
 		// the two views do not have the same parent.
 
 		// Get FAB's coordinates
-		int[] fabCoords = new int[2];
 		fab.getLocationOnScreen(fabCoords);
 
 		// Get sheet's coordinates
-		int[] sheetCoords = new int[2];
 		sheet.getLocationOnScreen(sheetCoords);
 
 		// NOTE: Use the diffs between the positions of the FAB and sheet to align the sheet.
@@ -91,6 +171,8 @@ public class MaterialSheetAnimation {
 		// padding within the view
 		ViewGroup.MarginLayoutParams sheetLayoutParams = (ViewGroup.MarginLayoutParams) sheet
 				.getLayoutParams();
+		float startX = sheet.getX();
+		float startY = sheet.getY();
 
 		// Set sheet's new coordinates (only if there is a change in coordinates because
 		// setting the same coordinates can cause the view to "drift" - moving 0.5 to 1 pixels
@@ -123,6 +205,70 @@ public class MaterialSheetAnimation {
 				revealYDirection = RevealYDirection.DOWN;
 			}
 		}
+
+		// Save the sheet's final bounds on the screen
+		int left = sheetCoords[0] + Math.round(sheet.getX() - startX);
+		int top = sheetCoords[1] + Math.round(sheet.getY() - startY);
+		sheetBounds.set(left, top, left + sheet.getWidth(), top + sheet.getHeight());
+		// Content behind the sheet's padding and rounded corners can show through
+		int radius = Math.round(getSheetCornerRadius());
+		sheetInsets.set(sheet.getPaddingLeft() + radius, sheet.getPaddingTop() + radius,
+				sheet.getPaddingRight() + radius, sheet.getPaddingBottom() + radius);
+	}
+
+	/**
+	 * Gets the part of the sheet that is fully covered by the sheet's background at the given
+	 * point of the reveal, in screen coordinates. Only valid after
+	 * {@link #alignSheetWithFab(View)} is called.
+	 *
+	 * @param progress Reveal progress where 0 is hidden and 1 is fully shown.
+	 * @param outBounds Rect that receives the bounds. Set to empty if nothing is covered.
+	 */
+	public void getRevealedBounds(float progress, Rect outBounds) {
+		getRevealedBounds(progress, true, outBounds);
+	}
+
+	/**
+	 * Gets the part of the sheet that has been revealed at the given point of the reveal, in
+	 * screen coordinates. Only valid after {@link #alignSheetWithFab(View)} is called.
+	 *
+	 * @param progress Reveal progress where 0 is hidden and 1 is fully shown.
+	 * @param excludePadding Whether to leave out the sheet's padding and rounded corners, which
+	 *            content behind the sheet can show through. Use false when the bounds are left
+	 *            out of a dim that is drawn above the sheet, since the sheet would be dimmed
+	 *            there.
+	 * @param outBounds Rect that receives the bounds. Set to empty if nothing is revealed.
+	 */
+	public void getRevealedBounds(float progress, boolean excludePadding, Rect outBounds) {
+		if (progress <= 0 || sheetBounds.isEmpty()) {
+			outBounds.setEmpty();
+			return;
+		}
+		// The sheet is revealed from its bottom right corner
+		int right = sheetBounds.right;
+		int bottom = sheetBounds.bottom;
+		if (excludePadding) {
+			outBounds.set(right - Math.round(progress * (sheetBounds.width() - sheetInsets.left)),
+					bottom - Math.round(progress * (sheetBounds.height() - sheetInsets.top)),
+					right - Math.round(progress * sheetInsets.right),
+					bottom - Math.round(progress * sheetInsets.bottom));
+		} else {
+			outBounds.set(right - Math.round(progress * sheetBounds.width()),
+					bottom - Math.round(progress * sheetBounds.height()), right, bottom);
+		}
+		if (outBounds.left >= outBounds.right || outBounds.top >= outBounds.bottom) {
+			outBounds.setEmpty();
+		}
+	}
+
+	/**
+	 * Sets the listener that is notified as the sheet is revealed or hidden.
+	 *
+	 * @param listener Listener that receives the reveal progress where 0 is hidden and 1 is
+	 *            fully shown.
+	 */
+	public void setRevealProgressListener(ProgressListener listener) {
+		revealProgressListener = listener;
 	}
 
 	/**
@@ -178,136 +324,241 @@ public class MaterialSheetAnimation {
 
 	protected void startExpandAnimation(View view, long duration, Interpolator interpolator,
 										final AnimationListener listener) {
-		// Setup animation
-        Animation fadeIn = new AlphaAnimation(0, 1);
-		Animation scale = new ScaleAnimation(0f, 1f, 0f, 1f,
-                Animation.RELATIVE_TO_SELF, 1, Animation.RELATIVE_TO_SELF, 1);
-        AnimationSet animationSet = new AnimationSet(true);
-        animationSet.addAnimation(fadeIn);
-        animationSet.addAnimation(scale);
-        animationSet.setDuration(duration);
-        animationSet.setInterpolator(interpolator);
-        animationSet.setAnimationListener(new Animation.AnimationListener() {
-            @Override
-            public void onAnimationStart(Animation animation) {
-                if (listener != null) {
-                    listener.onStart();
-                }
-            }
-
-            @Override
-            public void onAnimationEnd(Animation animation) {
-                if (listener != null) {
-                    listener.onEnd();
-                }
-            }
-
-            @Override
-            public void onAnimationRepeat(Animation animation) {
-
-            }
-        });
-
-        // Start animation
-		view.startAnimation(animationSet);
+		isExpanding = true;
+		isShrinking = false;
+		startRevealAnim(view, duration, interpolator, listener);
 	}
 
-	protected void startShrinkAnimation(View view, long duration, Interpolator interpolator,
+	protected void startShrinkAnimation(final View view, long duration, Interpolator interpolator,
 										final AnimationListener listener) {
-        // Setup animation
-        Animation fadeIn = new AlphaAnimation(1, 0);
-        Animation scale = new ScaleAnimation(1f, 0f, 1f, 0f,
-                Animation.RELATIVE_TO_SELF, 1, Animation.RELATIVE_TO_SELF, 1);
-        AnimationSet animationSet = new AnimationSet(true);
-        animationSet.addAnimation(fadeIn);
-        animationSet.addAnimation(scale);
-        animationSet.setDuration(duration);
-        animationSet.setInterpolator(interpolator);
-        animationSet.setAnimationListener(new Animation.AnimationListener() {
-            @Override
-            public void onAnimationStart(Animation animation) {
-                if (listener != null) {
-                    listener.onStart();
-                }
-            }
-
-            @Override
-            public void onAnimationEnd(Animation animation) {
-                if (listener != null) {
-                    listener.onEnd();
-                }
-            }
-
-            @Override
-            public void onAnimationRepeat(Animation animation) {
-
-            }
-        });
-
-        // Start animation
-        view.startAnimation(animationSet);
-	}
-
-
-	protected void startColorAnim(final View view, final int startColor, final int endColor,
-			long duration, Interpolator interpolator, final AnimationListener listener) {
-		// Setup animation
-		ValueAnimator anim = ValueAnimator.ofObject(new ArgbEvaluator(), startColor, endColor);
-		anim.setDuration(duration);
-		anim.setInterpolator(interpolator);
-		// Add listeners
-		anim.addListener(new AnimatorListenerAdapter() {
+		isExpanding = false;
+		isShrinking = true;
+		startRevealAnim(view, duration, interpolator, new AnimationListener() {
 			@Override
-			public void onAnimationStart(Animator animation) {
+			public void onStart() {
 				if (listener != null) {
 					listener.onStart();
 				}
 			}
 
 			@Override
-			public void onAnimationEnd(Animator animation) {
+			public void onEnd() {
+				// Hide sheet and restore its properties for the next time it is shown
+				isShrinking = false;
+				view.setVisibility(View.INVISIBLE);
+				view.setScaleX(1);
+				view.setScaleY(1);
+				view.setAlpha(1);
 				if (listener != null) {
 					listener.onEnd();
 				}
 			}
 		});
-		anim.addUpdateListener(new ValueAnimator.AnimatorUpdateListener() {
+	}
+
+	private void startRevealAnim(View view, long duration, Interpolator interpolator,
+			AnimationListener listener) {
+		revealView = view;
+		// Reveal from the bottom right corner
+		view.setPivotX(view.getWidth());
+		view.setPivotY(view.getHeight());
+		// Draw the card's shadow from a bitmap while the sheet is scaled
+		if (useCachedShadow()) {
+			listener = releaseCachedShadowAfter(listener);
+		}
+		// Start animation
+		revealAnimator.start(duration, interpolator, revealUpdateListener, listener);
+	}
+
+	/**
+	 * Draws the sheet's shadow from a bitmap if the cached shadow is enabled and the sheet is a
+	 * support CardView on Android < 5.0. The first time, the sheet's background is wrapped in a
+	 * {@link CachedSheetBackground}, which is kept so that later morphs only toggle its drawing.
+	 *
+	 * @return Whether the sheet draws the cached shadow.
+	 */
+	private boolean useCachedShadow() {
+		if (cachedBackground != null && cachedBackground.isCaching()) {
+			return true;
+		}
+		if (!isCachedShadowEnabled || Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
+			return false;
+		}
+		resolveCardViewMethods();
+		Drawable background = cachedBackground != null
+				? cachedBackground.getLiveBackground() : sheet.getBackground();
+		int width = sheet.getWidth();
+		int height = sheet.getHeight();
+		if (!isSupportCardView || setCardBackgroundColor == null || background == null
+				|| width == 0 || height == 0) {
+			return false;
+		}
+		resolveCardBackgroundFields(background);
+		if (cardBackgroundFields == null) {
+			return false;
+		}
+
+		Bitmap shadow;
+		try {
+			shadow = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+		} catch (OutOfMemoryError e) {
+			// The cache is only an optimization, keep drawing the live background
+			return false;
+		}
+		// Draw only the shadow, the card itself is drawn on top so that its color can change
+		background.setBounds(0, 0, width, height);
+		setCardBackgroundColor(Color.TRANSPARENT);
+		background.draw(new Canvas(shadow));
+		setCardBackgroundColor(cardColor);
+		// Read after drawing, which is when the background lays out the card
+		RectF cardBounds = cardBackgroundFields.getCardBounds(background);
+		float cornerRadius = cardBackgroundFields.getCornerRadius(background);
+		if (cardBounds == null || cornerRadius < 0) {
+			return false;
+		}
+
+		if (cachedBackground == null) {
+			// The wrapper has no padding and the live background's minimum size, so setting it
+			// doesn't change the sheet's padding or lay it out again
+			cachedBackground = new CachedSheetBackground(background);
+			sheet.setBackgroundDrawable(cachedBackground);
+			background.setCallback(cachedBackground);
+		}
+		cachedBackground.startCaching(shadow, cardBounds, cornerRadius, cardColor);
+		return true;
+	}
+
+	private AnimationListener releaseCachedShadowAfter(final AnimationListener listener) {
+		return new AnimationListener() {
 			@Override
-			public void onAnimationUpdate(ValueAnimator animator) {
-				// Update background color
-				Integer color = (Integer) animator.getAnimatedValue();
-
-				// Use CardView.setCardBackgroundColor() to avoid crashes on Android < 5.0 and to
-				// properly set the card's background color without removing the card's other styles
-				// See https://github.com/gowong/material-sheet-fab/pull/2 and
-				// https://code.google.com/p/android/issues/detail?id=77843
-				if (isSupportCardView) {
-					// Use setCardBackground() method if it is available
-					if (setCardBackgroundColor != null) {
-						try {
-							setCardBackgroundColor.invoke(sheet, color);
-						} catch (Exception e) {
-							// Ignore exceptions since there's no other way set a support CardView's
-							// background color
-						}
-					}
+			public void onStart() {
+				if (listener != null) {
+					listener.onStart();
 				}
-				// Set background color for all other views
-				else {
-					view.setBackgroundColor(color);
+			}
+
+			@Override
+			public void onEnd() {
+				releaseCachedShadow();
+				if (listener != null) {
+					listener.onEnd();
 				}
 			}
-		});
+		};
+	}
+
+	/**
+	 * Draws the sheet's shadow from a bitmap while the sheet morphs, instead of redrawing it at
+	 * every scale. Only has an effect on a support CardView on Android < 5.0. The bitmap is
+	 * drawn when a morph starts and released when it ends.
+	 *
+	 * @param enabled Whether to cache the shadow.
+	 */
+	public void setCachedShadowEnabled(boolean enabled) {
+		isCachedShadowEnabled = enabled;
+		if (!enabled) {
+			releaseCachedShadow();
+		}
+	}
+
+	/**
+	 * Lets go of the cached shadow, if there is one, and draws the sheet's own background again.
+	 * The sheet's background stays wrapped, so this doesn't lay out the sheet again.
+	 */
+	public void releaseCachedShadow() {
+		if (cachedBackground != null) {
+			cachedBackground.stopCaching();
+		}
+	}
+
+	protected void startColorAnim(final View view, final int startColor, final int endColor,
+			long duration, Interpolator interpolator, final AnimationListener listener) {
+		resolveCardViewMethods();
+		colorView = view;
+		this.startColor = startColor;
+		this.endColor = endColor;
 		// Start animation
-		anim.start();
+		colorAnimator.start(duration, interpolator, colorUpdateListener, listener);
+	}
+
+	protected void setBackgroundColor(View view, int color) {
+		// Use CardView.setCardBackgroundColor() to avoid crashes on Android < 5.0 and to
+		// properly set the card's background color without removing the card's other styles
+		// See https://github.com/gowong/material-sheet-fab/pull/2 and
+		// https://code.google.com/p/android/issues/detail?id=77843
+		if (isSupportCardView) {
+			cardColor = color;
+			setCardBackgroundColor(color);
+			if (cachedBackground != null) {
+				cachedBackground.setColor(color);
+			}
+		}
+		// Set background color for all other views
+		else {
+			view.setBackgroundColor(color);
+		}
+	}
+
+	private void setCardBackgroundColor(int color) {
+		// Use setCardBackground() method if it is available
+		if (setCardBackgroundColor != null) {
+			try {
+				setCardBackgroundColor.invoke(sheet, color);
+			} catch (Exception e) {
+				// Ignore exceptions since there's no other way set a support CardView's
+				// background color
+			}
+		}
+	}
+
+	/**
+	 * Draws the sheet once into a discarded recording so that the work done on the sheet's first
+	 * draw (e.g. building the card's shadow and loading drawables) doesn't happen on the first
+	 * frame of the "show" animation.
+	 *
+	 * @return True if the sheet was drawn, false if it hasn't been laid out yet.
+	 */
+	public boolean prewarm() {
+		int width = sheet.getWidth();
+		int height = sheet.getHeight();
+		if (width == 0 || height == 0) {
+			return false;
+		}
+		Picture picture = new Picture();
+		Canvas canvas = picture.beginRecording(width, height);
+		try {
+			sheet.draw(canvas);
+		} catch (RuntimeException e) {
+			// Ignore views that can't be drawn in software (e.g. hardware bitmaps) since
+			// prewarming is only an optimization
+		} finally {
+			picture.endRecording();
+		}
+		return true;
 	}
 
 	public void setSheetVisibility(int visibility) {
 		sheet.setVisibility(visibility);
 	}
 
+	/**
+	 * Returns whether the sheet is visible. The sheet counts as hidden as soon as it starts
+	 * morphing into the FAB.
+	 */
 	public boolean isSheetVisible() {
-		return sheet.getVisibility() == View.VISIBLE;
+		return sheet.getVisibility() == View.VISIBLE && !isShrinking;
+	}
+
+	protected float getSheetCornerRadius() {
+		resolveCardViewMethods();
+		if (getRadius != null) {
+			try {
+				return (Float) getRadius.invoke(sheet);
+			} catch (Exception e) {
+				// Treat the corners as square if the radius can't be read
+			}
+		}
+		return 0;
 	}
 
 	protected float getSheetRevealRadius() {
@@ -1,10 +1,11 @@
 package com.ivaniskandar.materialsheetfab.animations;
 
-import android.animation.Animator;
-import android.animation.AnimatorListenerAdapter;
+import android.graphics.Rect;
 import android.view.View;
 import android.view.animation.Interpolator;
 
+import com.ivaniskandar.materialsheetfab.DimOverlayFrameLayout;
+
 /**
  * Created by Gordon Wong on 7/9/2015.
  *
@@ -14,62 +15,155 @@ public class OverlayAnimation {
 
 	protected View overlay;
 	protected Interpolator interpolator;
+	protected SystemBarAnimation systemBarAnimation;
+	private final FrameAnimator animator;
+	private final int[] overlayCoords = new int[2];
+	private float startAlpha;
+	private float endAlpha;
+
+	private final ProgressListener alphaListener = new ProgressListener() {
+		@Override
+		public void onProgress(float progress) {
+			float alpha = startAlpha + (endAlpha - startAlpha) * progress;
+			setOverlayAlpha(alpha);
+			if (systemBarAnimation != null) {
+				systemBarAnimation.update(alpha);
+			}
+		}
+	};
 
 	public OverlayAnimation(View overlay, Interpolator interpolator) {
+		this(overlay, interpolator, SystemAnimationClock.getInstance());
+	}
+
+	public OverlayAnimation(View overlay, Interpolator interpolator, AnimationClock clock) {
 		this.overlay = overlay;
 		this.interpolator = interpolator;
+		animator = new FrameAnimator(clock);
 	}
 
 	/**
 	 * Shows the overlay.
-	 * 
+	 *
 	 * @param duration Duration of the animation in milliseconds. Use 0 for no animation.
 	 * @param listener Listener for animation events.
 	 */
 	public void show(long duration, final AnimationListener listener) {
-		overlay.animate().alpha(1).setDuration(duration).setInterpolator(interpolator)
-				.setListener(new AnimatorListenerAdapter() {
-					@Override
-					public void onAnimationStart(Animator animation) {
-						overlay.setVisibility(View.VISIBLE);
-						if (listener != null) {
-							listener.onStart();
-						}
-					}
-
-					@Override
-					public void onAnimationEnd(Animator animation) {
-						if (listener != null) {
-							listener.onEnd();
-						}
-					}
-				}).start();
+		// Save the undimmed system bar colors before they start changing. If the overlay is
+		// already visible the bars are dimmed, so keep the colors captured before that.
+		if (systemBarAnimation != null
+				&& (!isOverlayVisible() || !systemBarAnimation.hasCapturedColors())) {
+			systemBarAnimation.captureColors();
+		}
+		setOverlayVisible(true);
+		startAlphaAnim(1, duration, listener);
 	}
 
 	/**
 	 * Hides the overlay.
-	 * 
+	 *
 	 * @param duration Duration of the animation in milliseconds. Use 0 for no animation.
 	 * @param listener Listener for animation events.
 	 */
 	public void hide(long duration, final AnimationListener listener) {
-		overlay.animate().alpha(0).setDuration(duration).setInterpolator(interpolator)
-				.setListener(new AnimatorListenerAdapter() {
-					@Override
-					public void onAnimationStart(Animator animation) {
-						if (listener != null) {
-							listener.onStart();
-						}
-					}
-
-					@Override
-					public void onAnimationEnd(Animator animation) {
-						overlay.setVisibility(View.GONE);
-						if (listener != null) {
-							listener.onEnd();
-						}
-					}
-				}).start();
+		// The end listener isn't called if the overlay is shown again before it is hidden
+		startAlphaAnim(0, duration, new AnimationListener() {
+			@Override
+			public void onStart() {
+				if (listener != null) {
+					listener.onStart();
+				}
+			}
+
+			@Override
+			public void onEnd() {
+				setOverlayVisible(false);
+				if (listener != null) {
+					listener.onEnd();
+				}
+			}
+		});
+	}
+
+	/**
+	 * Sets the animation that dims the system bars along with the overlay. If the overlay is
+	 * visible, the bars dimmed by the previous animation are restored and the new animation's
+	 * bars are dimmed to match the overlay right away.
+	 *
+	 * @param systemBarAnimation System bar animation or null to leave the system bars alone.
+	 */
+	public void setSystemBarAnimation(SystemBarAnimation systemBarAnimation) {
+		boolean isDimmed = isOverlayVisible();
+		if (this.systemBarAnimation != null && isDimmed) {
+			this.systemBarAnimation.update(0);
+		}
+		this.systemBarAnimation = systemBarAnimation;
+		if (systemBarAnimation != null) {
+			// The bars aren't dimmed by this animation yet, even if the overlay is visible
+			systemBarAnimation.captureColors();
+			if (isDimmed) {
+				systemBarAnimation.update(getOverlayAlpha());
+			}
+		}
+	}
+
+	/**
+	 * Leaves part of the screen undimmed, e.g. the part covered by the sheet, so those pixels
+	 * aren't drawn twice.
+	 *
+	 * @param screenBounds Undimmed area in screen coordinates. Use an empty rect to dim the
+	 *            whole overlay.
+	 */
+	public void setExcludedBounds(Rect screenBounds) {
+		if (screenBounds.isEmpty()) {
+			setOverlayExcludedBounds(0, 0, 0, 0);
+			return;
+		}
+		overlay.getLocationOnScreen(overlayCoords);
+		setOverlayExcludedBounds(screenBounds.left - overlayCoords[0],
+				screenBounds.top - overlayCoords[1], screenBounds.right - overlayCoords[0],
+				screenBounds.bottom - overlayCoords[1]);
+	}
+
+	/**
+	 * Returns whether the dim is drawn above the sheet rather than under it. If so, the whole
+	 * revealed sheet must be left undimmed, including its padding and rounded corners.
+	 */
+	public boolean isDrawnAboveSheet() {
+		return false;
+	}
+
+	/**
+	 * Returns whether the overlay is visible, including while it is being shown or hidden.
+	 */
+	public boolean isOverlayVisible() {
+		return overlay.getVisibility() == View.VISIBLE;
+	}
+
+	protected void setOverlayVisible(boolean visible) {
+		overlay.setVisibility(visible ? View.VISIBLE : View.GONE);
+	}
+
+	protected float getOverlayAlpha() {
+		return overlay.getAlpha();
+	}
+
+	protected void setOverlayAlpha(float alpha) {
+		overlay.setAlpha(alpha);
+	}
+
+	protected void setOverlayExcludedBounds(int left, int top, int right, int bottom) {
+		// Other overlay views always dim the whole screen
+		if (overlay instanceof DimOverlayFrameLayout) {
+			((DimOverlayFrameLayout) overlay).setExcludedBounds(left, top, right, bottom);
+		}
+	}
+
+	protected void startAlphaAnim(float endAlpha, long duration, AnimationListener listener) {
+		// Start from the current alpha in case the overlay is already being shown or hidden
+		startAlpha = getOverlayAlpha();
+		this.endAlpha = endAlpha;
+		animator.start(duration, interpolator, alphaListener, listener);
 	}
 
 }
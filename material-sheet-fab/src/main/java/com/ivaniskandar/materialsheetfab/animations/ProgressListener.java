@@ -0,0 +1,15 @@
+package com.ivaniskandar.materialsheetfab.animations;
+
+/**
+ * Listener for the progress of an animation.
+ */
+public abstract class ProgressListener {
+
+	/**
+	 * Called on every frame of the animation.
+	 *
+	 * @param progress Animation progress between 0 and 1.
+	 */
+	public abstract void onProgress(float progress);
+
+}
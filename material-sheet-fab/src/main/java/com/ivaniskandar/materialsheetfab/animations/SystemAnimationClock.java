@@ -0,0 +1,114 @@
+package com.ivaniskandar.materialsheetfab.animations;
+
+import android.annotation.TargetApi;
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.view.Choreographer;
+import android.view.animation.AnimationUtils;
+
+import java.util.ArrayList;
+
+/**
+ * Animation clock backed by the platform. Frames come from the {@link Choreographer} on
+ * Android 4.1+ and from a main thread handler before that. Must only be used from the main
+ * thread.
+ */
+public class SystemAnimationClock implements AnimationClock {
+
+	// Frame interval used when the Choreographer isn't available
+	private static final long FALLBACK_FRAME_DELAY = 10;
+
+	private static SystemAnimationClock instance;
+
+	private final Handler handler = new Handler(Looper.getMainLooper());
+	private final ArrayList<FrameCallback> frameCallbacks = new ArrayList<>();
+	private final ArrayList<FrameCallback> runningCallbacks = new ArrayList<>();
+	private boolean isFrameScheduled;
+	private Object choreographerCallback;
+	private Runnable handlerCallback;
+
+	/**
+	 * Returns the shared system clock.
+	 */
+	public static SystemAnimationClock getInstance() {
+		if (instance == null) {
+			instance = new SystemAnimationClock();
+		}
+		return instance;
+	}
+
+	@Override
+	public long now() {
+		return AnimationUtils.currentAnimationTimeMillis();
+	}
+
+	@Override
+	public void postFrameCallback(FrameCallback callback) {
+		if (!frameCallbacks.contains(callback)) {
+			frameCallbacks.add(callback);
+		}
+		scheduleFrame();
+	}
+
+	@Override
+	public void removeFrameCallback(FrameCallback callback) {
+		frameCallbacks.remove(callback);
+	}
+
+	@Override
+	public void postDelayed(Runnable runnable, long delayMillis) {
+		handler.postDelayed(runnable, delayMillis);
+	}
+
+	@Override
+	public void removeCallbacks(Runnable runnable) {
+		handler.removeCallbacks(runnable);
+	}
+
+	private void scheduleFrame() {
+		if (isFrameScheduled) {
+			return;
+		}
+		isFrameScheduled = true;
+		// Only one platform callback is ever posted, so scheduling frames doesn't allocate
+		if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN) {
+			postChoreographerCallback();
+		} else {
+			if (handlerCallback == null) {
+				handlerCallback = new Runnable() {
+					@Override
+					public void run() {
+						dispatchFrame(now());
+					}
+				};
+			}
+			handler.postDelayed(handlerCallback, FALLBACK_FRAME_DELAY);
+		}
+	}
+
+	@TargetApi(Build.VERSION_CODES.JELLY_BEAN)
+	private void postChoreographerCallback() {
+		if (choreographerCallback == null) {
+			choreographerCallback = new Choreographer.FrameCallback() {
+				@Override
+				public void doFrame(long frameTimeNanos) {
+					dispatchFrame(frameTimeNanos / 1000000);
+				}
+			};
+		}
+		Choreographer.getInstance()
+				.postFrameCallback((Choreographer.FrameCallback) choreographerCallback);
+	}
+
+	private void dispatchFrame(long frameTimeMillis) {
+		isFrameScheduled = false;
+		// Callbacks posted while dispatching run on the next frame
+		runningCallbacks.addAll(frameCallbacks);
+		frameCallbacks.clear();
+		for (int i = 0; i < runningCallbacks.size(); i++) {
+			runningCallbacks.get(i).doFrame(frameTimeMillis);
+		}
+		runningCallbacks.clear();
+	}
+}
@@ -0,0 +1,96 @@
+package com.ivaniskandar.materialsheetfab.animations;
+
+import android.os.Build;
+import android.view.Window;
+
+/**
+ * Dims the status and navigation bars in step with the overlay.
+ */
+public class SystemBarAnimation {
+
+	protected Window window;
+	private int statusBarDimColor;
+	private int navigationBarDimColor;
+	private boolean dimNavigationBar;
+
+	// Undimmed colors captured when the animation is set and when the overlay starts showing
+	private int statusBarColor;
+	private int navigationBarColor;
+	private boolean hasCapturedColors;
+
+	// Last colors written to the window
+	private int lastStatusBarColor;
+	private int lastNavigationBarColor;
+
+	/**
+	 * Creates a system bar animation that only dims the status bar.
+	 *
+	 * @param window Window whose system bars are dimmed.
+	 * @param statusBarDimColor Status bar color when the overlay is fully shown.
+	 */
+	public SystemBarAnimation(Window window, int statusBarDimColor) {
+		this.window = window;
+		this.statusBarDimColor = statusBarDimColor;
+	}
+
+	/**
+	 * Creates a system bar animation that dims both the status and navigation bars.
+	 *
+	 * @param window Window whose system bars are dimmed.
+	 * @param statusBarDimColor Status bar color when the overlay is fully shown.
+	 * @param navigationBarDimColor Navigation bar color when the overlay is fully shown.
+	 */
+	public SystemBarAnimation(Window window, int statusBarDimColor, int navigationBarDimColor) {
+		this(window, statusBarDimColor);
+		this.navigationBarDimColor = navigationBarDimColor;
+		dimNavigationBar = true;
+	}
+
+	/**
+	 * Saves the current system bar colors so they can be restored once the overlay is hidden.
+	 * Should only be called while this animation hasn't dimmed the bars.
+	 */
+	public void captureColors() {
+		if (Build.VERSION.SDK_INT < Build.VERSION_CODES.LOLLIPOP) {
+			return;
+		}
+		hasCapturedColors = true;
+		statusBarColor = window.getStatusBarColor();
+		lastStatusBarColor = statusBarColor;
+		if (dimNavigationBar) {
+			navigationBarColor = window.getNavigationBarColor();
+			lastNavigationBarColor = navigationBarColor;
+		}
+	}
+
+	/**
+	 * Returns whether the undimmed system bar colors have been saved.
+	 */
+	public boolean hasCapturedColors() {
+		return hasCapturedColors;
+	}
+
+	/**
+	 * Updates the system bar colors.
+	 *
+	 * @param progress Overlay progress where 0 is hidden and 1 is fully shown.
+	 */
+	public void update(float progress) {
+		if (Build.VERSION.SDK_INT < Build.VERSION_CODES.LOLLIPOP) {
+			return;
+		}
+		// Only touch the window when the blended color actually changes
+		int color = ColorUtils.blendArgb(statusBarColor, statusBarDimColor, progress);
+		if (color != lastStatusBarColor) {
+			window.setStatusBarColor(color);
+			lastStatusBarColor = color;
+		}
+		if (dimNavigationBar) {
+			color = ColorUtils.blendArgb(navigationBarColor, navigationBarDimColor, progress);
+			if (color != lastNavigationBarColor) {
+				window.setNavigationBarColor(color);
+				lastNavigationBarColor = color;
+			}
+		}
+	}
+}
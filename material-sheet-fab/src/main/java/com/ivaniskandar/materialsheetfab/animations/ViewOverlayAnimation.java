@@ -0,0 +1,91 @@
+package com.ivaniskandar.materialsheetfab.animations;
+
+import android.annotation.TargetApi;
+import android.os.Build;
+import android.view.View;
+import android.view.animation.Interpolator;
+
+import com.ivaniskandar.materialsheetfab.DimOverlayDrawable;
+
+/**
+ * Animates a dim drawn into the root view's {@link android.view.ViewOverlay} instead of a
+ * full-screen overlay view. The dim is only drawn on Android 4.3+.
+ *
+ * Since the root's overlay is drawn above every view, the sheet must be left out of the dim
+ * using {@link #setExcludedBounds(android.graphics.Rect)}.
+ */
+public class ViewOverlayAnimation extends OverlayAnimation {
+
+	protected DimOverlayDrawable dimDrawable;
+	private boolean isVisible;
+	private float alpha;
+
+	/**
+	 * @param root View whose overlay the dim is drawn into.
+	 * @param dimColor Color of the dim when it is fully shown.
+	 * @param interpolator Interpolator for the dim animations.
+	 */
+	public ViewOverlayAnimation(View root, int dimColor, Interpolator interpolator) {
+		this(root, dimColor, interpolator, SystemAnimationClock.getInstance());
+	}
+
+	/**
+	 * @param root View whose overlay the dim is drawn into.
+	 * @param dimColor Color of the dim when it is fully shown.
+	 * @param interpolator Interpolator for the dim animations.
+	 * @param clock Clock that drives the dim animations.
+	 */
+	public ViewOverlayAnimation(View root, int dimColor, Interpolator interpolator,
+			AnimationClock clock) {
+		super(root, interpolator, clock);
+		dimDrawable = new DimOverlayDrawable(dimColor);
+		dimDrawable.setAlpha(0);
+	}
+
+	@Override
+	public boolean isDrawnAboveSheet() {
+		return true;
+	}
+
+	@Override
+	public boolean isOverlayVisible() {
+		return isVisible;
+	}
+
+	@TargetApi(Build.VERSION_CODES.JELLY_BEAN_MR2)
+	@Override
+	protected void setOverlayVisible(boolean visible) {
+		if (isVisible == visible) {
+			return;
+		}
+		isVisible = visible;
+		if (Build.VERSION.SDK_INT < Build.VERSION_CODES.JELLY_BEAN_MR2) {
+			return;
+		}
+		if (visible) {
+			dimDrawable.setBounds(0, 0, overlay.getWidth(), overlay.getHeight());
+			overlay.getOverlay().add(dimDrawable);
+		} else {
+			overlay.getOverlay().remove(dimDrawable);
+		}
+	}
+
+	@Override
+	protected float getOverlayAlpha() {
+		return alpha;
+	}
+
+	@Override
+	protected void setOverlayAlpha(float alpha) {
+		this.alpha = alpha;
+		dimDrawable.setAlpha(Math.round(alpha * 255));
+		if (isVisible) {
+			dimDrawable.setBounds(0, 0, overlay.getWidth(), overlay.getHeight());
+		}
+	}
+
+	@Override
+	protected void setOverlayExcludedBounds(int left, int top, int right, int bottom) {
+		dimDrawable.setExcludedBounds(left, top, right, bottom);
+	}
+}
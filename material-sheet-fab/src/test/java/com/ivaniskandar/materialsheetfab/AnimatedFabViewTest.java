@@ -0,0 +1,93 @@
+package com.ivaniskandar.materialsheetfab;
+
+import android.view.View;
+import android.view.animation.AnimationUtils;
+import android.view.animation.Interpolator;
+
+import com.ivaniskandar.materialsheetfab.animations.ManualAnimationClock;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+/**
+ * Checks the FAB's scale and translation at the start, middle and end of showing and hiding it.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class AnimatedFabViewTest {
+
+	private static final float DELTA = 0.0001f;
+	// Duration of the FAB's show and hide animations
+	private static final long DURATION = 200;
+
+	private ManualAnimationClock clock;
+	private AnimatedFabView fab;
+	// Interpolated progress halfway through the animations
+	private float halfway;
+
+	@Before
+	public void setUp() {
+		clock = new ManualAnimationClock();
+		fab = new AnimatedFabView(RuntimeEnvironment.application);
+		fab.setAnimationClock(clock);
+		Interpolator interpolator = AnimationUtils.loadInterpolator(RuntimeEnvironment.application,
+				R.interpolator.msf_interpolator);
+		halfway = interpolator.getInterpolation(0.5f);
+	}
+
+	@Test
+	public void show_whenHidden_growsAndMovesToTranslation() {
+		fab.setVisibility(View.INVISIBLE);
+
+		fab.show(10, 20);
+
+		assertEquals(View.VISIBLE, fab.getVisibility());
+		assertScaleAndTranslation(0, 0, 0);
+		clock.advance(DURATION / 2);
+		assertScaleAndTranslation(halfway, 10 * halfway, 20 * halfway);
+		clock.advance(DURATION / 2);
+		assertScaleAndTranslation(1, 10, 20);
+		assertFalse(fab.isShowHideAnimationRunning());
+	}
+
+	@Test
+	public void show_whenShown_onlyMoves() {
+		fab.show(10, 20);
+		clock.advance(DURATION);
+
+		fab.show(30, 20);
+
+		clock.advance(DURATION / 2);
+		assertScaleAndTranslation(1, 10 + 20 * halfway, 20);
+		clock.advance(DURATION / 2);
+		assertScaleAndTranslation(1, 30, 20);
+	}
+
+	@Test
+	public void hide_shrinksInPlaceAndHidesFab() {
+		fab.show(10, 20);
+		clock.advance(DURATION);
+
+		fab.hide();
+
+		assertScaleAndTranslation(1, 10, 20);
+		clock.advance(DURATION / 2);
+		assertScaleAndTranslation(1 - halfway, 10, 20);
+		clock.advance(DURATION / 2);
+		assertEquals(View.INVISIBLE, fab.getVisibility());
+		// Restored for the next time the FAB is shown
+		assertScaleAndTranslation(1, 10, 20);
+	}
+
+	private void assertScaleAndTranslation(float scale, float translationX, float translationY) {
+		assertEquals(scale, fab.getScaleX(), DELTA);
+		assertEquals(scale, fab.getScaleY(), DELTA);
+		assertEquals(translationX, fab.getTranslationX(), DELTA);
+		assertEquals(translationY, fab.getTranslationY(), DELTA);
+	}
+}
@@ -0,0 +1,182 @@
+package com.ivaniskandar.materialsheetfab;
+
+import com.ivaniskandar.materialsheetfab.SheetStateMachine.Outcome;
+import com.ivaniskandar.materialsheetfab.SheetStateMachine.State;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks every request in every state of {@link SheetStateMachine}.
+ */
+public class SheetStateMachineTest {
+
+	private SheetStateMachine stateMachine;
+
+	@Before
+	public void setUp() {
+		stateMachine = new SheetStateMachine();
+	}
+
+	@Test
+	public void initialState_isHidden() {
+		assertEquals(State.HIDDEN, stateMachine.getState());
+		assertFalse(stateMachine.isTransitioning());
+		assertNull(stateMachine.getPendingTarget());
+	}
+
+	@Test
+	public void hidden_show_startsShowing() {
+		assertEquals(Outcome.STARTED, stateMachine.requestShow());
+		assertEquals(State.SHOWING, stateMachine.getState());
+		assertTrue(stateMachine.isTransitioning());
+	}
+
+	@Test
+	public void hidden_hide_isIgnored() {
+		assertEquals(Outcome.IGNORED, stateMachine.requestHide());
+		assertEquals(State.HIDDEN, stateMachine.getState());
+	}
+
+	@Test
+	public void showing_end_isShown() {
+		stateMachine.requestShow();
+
+		assertFalse(stateMachine.onTransitionEnded());
+		assertEquals(State.SHOWN, stateMachine.getState());
+		assertFalse(stateMachine.isTransitioning());
+	}
+
+	@Test
+	public void showing_show_isIgnored() {
+		stateMachine.requestShow();
+
+		assertEquals(Outcome.IGNORED, stateMachine.requestShow());
+		assertEquals(State.SHOWING, stateMachine.getState());
+		assertNull(stateMachine.getPendingTarget());
+	}
+
+	@Test
+	public void showing_hide_hidesWhenShown() {
+		stateMachine.requestShow();
+
+		assertEquals(Outcome.DEFERRED, stateMachine.requestHide());
+		assertEquals(State.SHOWING, stateMachine.getState());
+		assertEquals(State.HIDDEN, stateMachine.getPendingTarget());
+
+		assertTrue(stateMachine.onTransitionEnded());
+		assertEquals(State.HIDING, stateMachine.getState());
+		assertNull(stateMachine.getPendingTarget());
+	}
+
+	@Test
+	public void showing_hideThenShow_cancelsPendingHide() {
+		stateMachine.requestShow();
+		stateMachine.requestHide();
+
+		assertEquals(Outcome.IGNORED, stateMachine.requestShow());
+		assertNull(stateMachine.getPendingTarget());
+
+		assertFalse(stateMachine.onTransitionEnded());
+		assertEquals(State.SHOWN, stateMachine.getState());
+	}
+
+	@Test
+	public void showing_manyRequests_lastOneWins() {
+		stateMachine.requestShow();
+		stateMachine.requestHide();
+		stateMachine.requestShow();
+		stateMachine.requestHide();
+		stateMachine.requestHide();
+
+		assertEquals(State.HIDDEN, stateMachine.getPendingTarget());
+		assertTrue(stateMachine.onTransitionEnded());
+		assertEquals(State.HIDING, stateMachine.getState());
+		// Only one follow-up transition
+		assertFalse(stateMachine.onTransitionEnded());
+		assertEquals(State.HIDDEN, stateMachine.getState());
+	}
+
+	@Test
+	public void shown_show_isIgnored() {
+		showSheet();
+
+		assertEquals(Outcome.IGNORED, stateMachine.requestShow());
+		assertEquals(State.SHOWN, stateMachine.getState());
+	}
+
+	@Test
+	public void shown_hide_startsHiding() {
+		showSheet();
+
+		assertEquals(Outcome.STARTED, stateMachine.requestHide());
+		assertEquals(State.HIDING, stateMachine.getState());
+	}
+
+	@Test
+	public void hiding_end_isHidden() {
+		showSheet();
+		stateMachine.requestHide();
+
+		assertFalse(stateMachine.onTransitionEnded());
+		assertEquals(State.HIDDEN, stateMachine.getState());
+	}
+
+	@Test
+	public void hiding_hide_isIgnored() {
+		showSheet();
+		stateMachine.requestHide();
+
+		assertEquals(Outcome.IGNORED, stateMachine.requestHide());
+		assertNull(stateMachine.getPendingTarget());
+	}
+
+	@Test
+	public void hiding_show_showsWhenHidden() {
+		showSheet();
+		stateMachine.requestHide();
+
+		assertEquals(Outcome.DEFERRED, stateMachine.requestShow());
+		assertEquals(State.HIDING, stateMachine.getState());
+		assertEquals(State.SHOWN, stateMachine.getPendingTarget());
+
+		assertTrue(stateMachine.onTransitionEnded());
+		assertEquals(State.SHOWING, stateMachine.getState());
+		assertNull(stateMachine.getPendingTarget());
+	}
+
+	@Test
+	public void hiding_showThenHide_cancelsPendingShow() {
+		showSheet();
+		stateMachine.requestHide();
+		stateMachine.requestShow();
+
+		assertEquals(Outcome.IGNORED, stateMachine.requestHide());
+		assertNull(stateMachine.getPendingTarget());
+
+		assertFalse(stateMachine.onTransitionEnded());
+		assertEquals(State.HIDDEN, stateMachine.getState());
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void hidden_end_throws() {
+		stateMachine.onTransitionEnded();
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void shown_end_throws() {
+		showSheet();
+
+		stateMachine.onTransitionEnded();
+	}
+
+	private void showSheet() {
+		stateMachine.requestShow();
+		stateMachine.onTransitionEnded();
+	}
+}
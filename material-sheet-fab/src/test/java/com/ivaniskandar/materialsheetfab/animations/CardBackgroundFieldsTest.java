@@ -0,0 +1,75 @@
+package com.ivaniskandar.materialsheetfab.animations;
+
+import android.graphics.RectF;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Checks that {@link CardBackgroundFields} reads backgrounds that have the card's fields and
+ * falls back to null for backgrounds that don't.
+ */
+public class CardBackgroundFieldsTest {
+
+	private static final float DELTA = 0.0001f;
+
+	@Test
+	public void resolve_withFields_readsThem() {
+		// RectF can't be created in a JVM test, so the bounds are left unset
+		CardBackground background = new CardBackground();
+		background.mCornerRadius = 4;
+
+		CardBackgroundFields fields = CardBackgroundFields.resolve(CardBackground.class);
+
+		assertNotNull(fields);
+		assertNull(fields.getCardBounds(background));
+		assertEquals(4, fields.getCornerRadius(background), DELTA);
+	}
+
+	@Test
+	public void resolve_withoutFields_isNull() {
+		assertNull(CardBackgroundFields.resolve(OtherBackground.class));
+	}
+
+	@Test
+	public void resolve_withOneField_isNull() {
+		assertNull(CardBackgroundFields.resolve(RadiusOnlyBackground.class));
+	}
+
+	@Test
+	public void resolve_withFieldsOfOtherTypes_isNull() {
+		assertNull(CardBackgroundFields.resolve(OtherTypesBackground.class));
+	}
+
+	@Test
+	public void read_otherBackground_fallsBack() {
+		CardBackgroundFields fields = CardBackgroundFields.resolve(CardBackground.class);
+
+		assertNull(fields.getCardBounds(new OtherBackground()));
+		assertEquals(-1, fields.getCornerRadius(new OtherBackground()), DELTA);
+	}
+
+	// Named after the fields of the support CardView's pre-Lollipop background
+	@SuppressWarnings("unused")
+	private static class CardBackground {
+		private RectF mCardBounds;
+		private float mCornerRadius;
+	}
+
+	@SuppressWarnings("unused")
+	private static class RadiusOnlyBackground {
+		private float mCornerRadius;
+	}
+
+	@SuppressWarnings("unused")
+	private static class OtherTypesBackground {
+		private Object mCardBounds;
+		private int mCornerRadius;
+	}
+
+	private static class OtherBackground {
+	}
+}
@@ -0,0 +1,106 @@
+package com.ivaniskandar.materialsheetfab.animations;
+
+import android.view.View;
+import android.view.animation.LinearInterpolator;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Checks the FAB's scale and alpha at the start, middle and end of its morphs.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class FabAnimationTest {
+
+	private static final float DELTA = 0.0001f;
+	private static final long DURATION = 100;
+
+	private ManualAnimationClock clock;
+	private View fab;
+	private FabAnimation animation;
+	private CountingListener listener;
+
+	@Before
+	public void setUp() {
+		clock = new ManualAnimationClock();
+		fab = new View(RuntimeEnvironment.application);
+		fab.layout(0, 0, 56, 56);
+		animation = new FabAnimation(fab, new LinearInterpolator(), clock);
+		listener = new CountingListener();
+	}
+
+	@Test
+	public void morphIntoSheet_growsAndFadesOut() {
+		animation.morphIntoSheet(DURATION, listener);
+
+		assertScaleAndAlpha(1, 1);
+		// Scales from the bottom right corner
+		assertEquals(56, fab.getPivotX(), DELTA);
+		assertEquals(56, fab.getPivotY(), DELTA);
+
+		clock.advance(DURATION / 2);
+		assertScaleAndAlpha(1.5f, 0.5f);
+		assertEquals(0, listener.ends);
+
+		clock.advance(DURATION / 2);
+		assertEquals(1, listener.ends);
+		assertEquals(View.INVISIBLE, fab.getVisibility());
+		// Restored for the next time the FAB is shown
+		assertScaleAndAlpha(1, 1);
+		assertEquals(28, fab.getPivotX(), DELTA);
+		assertEquals(28, fab.getPivotY(), DELTA);
+	}
+
+	@Test
+	public void morphFromSheet_shrinksAndFadesIn() {
+		fab.setVisibility(View.INVISIBLE);
+
+		animation.morphFromSheet(DURATION, listener);
+
+		assertEquals(View.VISIBLE, fab.getVisibility());
+		assertScaleAndAlpha(2, 0);
+
+		clock.advance(DURATION / 2);
+		assertScaleAndAlpha(1.5f, 0.5f);
+
+		clock.advance(DURATION / 2);
+		assertEquals(1, listener.ends);
+		assertEquals(View.VISIBLE, fab.getVisibility());
+		assertScaleAndAlpha(1, 1);
+	}
+
+	@Test
+	public void morphFromSheet_whileMorphingIntoSheet_restartsFromTheMorphsStart() {
+		animation.morphIntoSheet(DURATION, listener);
+		clock.advance(DURATION / 2);
+
+		animation.morphFromSheet(DURATION, null);
+
+		assertScaleAndAlpha(2, 0);
+		clock.advance(DURATION);
+		assertScaleAndAlpha(1, 1);
+		// The canceled morph doesn't end
+		assertEquals(0, listener.ends);
+	}
+
+	private void assertScaleAndAlpha(float scale, float alpha) {
+		assertEquals(scale, fab.getScaleX(), DELTA);
+		assertEquals(scale, fab.getScaleY(), DELTA);
+		assertEquals(alpha, fab.getAlpha(), DELTA);
+	}
+
+	private static class CountingListener extends AnimationListener {
+
+		int ends;
+
+		@Override
+		public void onEnd() {
+			ends++;
+		}
+	}
+}
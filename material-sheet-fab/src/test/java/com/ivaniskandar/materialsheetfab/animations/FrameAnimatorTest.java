@@ -0,0 +1,151 @@
+package com.ivaniskandar.materialsheetfab.animations;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Steps a {@link FrameAnimator} through its frames with a {@link ManualAnimationClock}.
+ */
+public class FrameAnimatorTest {
+
+	private static final float DELTA = 0.0001f;
+
+	private ManualAnimationClock clock;
+	private FrameAnimator animator;
+	private RecordingListener listener;
+
+	@Before
+	public void setUp() {
+		clock = new ManualAnimationClock();
+		animator = new FrameAnimator(clock);
+		listener = new RecordingListener();
+	}
+
+	@Test
+	public void start_reportsStartingProgressRightAway() {
+		animator.start(100, null, listener, listener.events);
+
+		assertTrue(animator.isRunning());
+		assertEquals(1, listener.starts);
+		assertEquals(1, listener.progress.size());
+		assertEquals(0, listener.progress.get(0), DELTA);
+		assertTrue(clock.hasPendingWork());
+	}
+
+	@Test
+	public void advance_reportsProgressOnEveryFrame() {
+		animator.start(100, null, listener, listener.events);
+
+		clock.advance(25);
+		assertEquals(0.25f, lastProgress(), DELTA);
+		clock.advance(50);
+		assertEquals(0.75f, lastProgress(), DELTA);
+		assertTrue(animator.isRunning());
+		assertEquals(0, listener.ends);
+	}
+
+	@Test
+	public void advance_pastDuration_endsAtFullProgress() {
+		animator.start(100, null, listener, listener.events);
+
+		clock.advance(60);
+		clock.advance(60);
+
+		assertFalse(animator.isRunning());
+		assertEquals(1, lastProgress(), DELTA);
+		assertEquals(1, listener.ends);
+		assertFalse(clock.hasPendingWork());
+	}
+
+	@Test
+	public void advanceUntilIdle_runsAnimationToTheEnd() {
+		animator.start(100, null, listener, listener.events);
+
+		clock.advanceUntilIdle(16, 1000);
+
+		assertFalse(animator.isRunning());
+		assertEquals(1, lastProgress(), DELTA);
+		assertEquals(1, listener.ends);
+		// The first frame, one frame every 16 ms, and the last frame
+		assertEquals(8, listener.progress.size());
+	}
+
+	@Test
+	public void start_withZeroDuration_endsRightAway() {
+		animator.start(0, null, listener, listener.events);
+
+		assertFalse(animator.isRunning());
+		assertEquals(1, listener.starts);
+		assertEquals(1, listener.ends);
+		assertEquals(1, listener.progress.size());
+		assertEquals(1, lastProgress(), DELTA);
+		assertFalse(clock.hasPendingWork());
+	}
+
+	@Test
+	public void cancel_stopsWithoutEnding() {
+		animator.start(100, null, listener, listener.events);
+		clock.advance(40);
+
+		animator.cancel();
+		clock.advance(100);
+
+		assertFalse(animator.isRunning());
+		assertEquals(0.4f, lastProgress(), DELTA);
+		assertEquals(0, listener.ends);
+		assertFalse(clock.hasPendingWork());
+	}
+
+	@Test
+	public void start_whileRunning_restartsFromTheCurrentTime() {
+		RecordingListener first = new RecordingListener();
+		animator.start(100, null, first, first.events);
+		clock.advance(50);
+
+		animator.start(100, null, listener, listener.events);
+		clock.advance(50);
+
+		// The first animation is canceled, not ended, and gets no more frames
+		assertEquals(0, first.ends);
+		assertEquals(2, first.progress.size());
+		assertEquals(0.5f, lastProgress(), DELTA);
+		clock.advance(50);
+		assertEquals(1, listener.ends);
+		assertEquals(2, first.progress.size());
+	}
+
+	private float lastProgress() {
+		return listener.progress.get(listener.progress.size() - 1);
+	}
+
+	private static class RecordingListener extends ProgressListener {
+
+		final List<Float> progress = new ArrayList<>();
+		int starts;
+		int ends;
+
+		final AnimationListener events = new AnimationListener() {
+			@Override
+			public void onStart() {
+				starts++;
+			}
+
+			@Override
+			public void onEnd() {
+				ends++;
+			}
+		};
+
+		@Override
+		public void onProgress(float progress) {
+			this.progress.add(progress);
+		}
+	}
+}
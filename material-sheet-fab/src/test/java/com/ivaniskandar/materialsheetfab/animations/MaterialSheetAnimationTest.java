@@ -0,0 +1,155 @@
+package com.ivaniskandar.materialsheetfab.animations;
+
+import android.graphics.Rect;
+import android.graphics.drawable.ColorDrawable;
+import android.view.View;
+import android.view.ViewGroup;
+import android.view.animation.LinearInterpolator;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks the sheet's scale, revealed bounds and color at the start, middle and end of its
+ * morphs.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class MaterialSheetAnimationTest {
+
+	private static final float DELTA = 0.0001f;
+	private static final long DURATION = 100;
+	private static final int SHEET_WIDTH = 200;
+	private static final int SHEET_HEIGHT = 300;
+	private static final int SHEET_PADDING = 10;
+	private static final int FAB_SIZE = 60;
+	private static final int FAB_COLOR = 0xff4080c0;
+	private static final int SHEET_COLOR = 0xffffffff;
+	// Halfway between the two colors above
+	private static final int HALF_COLOR = 0xffa0c0e0;
+
+	private ManualAnimationClock clock;
+	private View sheet;
+	private View fab;
+	private MaterialSheetAnimation animation;
+	private final List<Float> revealProgress = new ArrayList<>();
+	private final Rect bounds = new Rect();
+
+	@Before
+	public void setUp() {
+		clock = new ManualAnimationClock();
+		sheet = new View(RuntimeEnvironment.application);
+		sheet.setLayoutParams(new ViewGroup.MarginLayoutParams(SHEET_WIDTH, SHEET_HEIGHT));
+		sheet.setPadding(SHEET_PADDING, SHEET_PADDING, SHEET_PADDING, SHEET_PADDING);
+		sheet.layout(0, 0, SHEET_WIDTH, SHEET_HEIGHT);
+		sheet.setVisibility(View.INVISIBLE);
+		// The FAB sits in the sheet's bottom right corner, so aligning doesn't move the sheet
+		fab = new View(RuntimeEnvironment.application);
+		fab.layout(SHEET_WIDTH - FAB_SIZE, SHEET_HEIGHT - FAB_SIZE, SHEET_WIDTH, SHEET_HEIGHT);
+		animation = new MaterialSheetAnimation(sheet, SHEET_COLOR, FAB_COLOR,
+				new LinearInterpolator(), clock);
+		animation.setRevealProgressListener(new ProgressListener() {
+			@Override
+			public void onProgress(float progress) {
+				revealProgress.add(progress);
+			}
+		});
+		animation.alignSheetWithFab(fab);
+	}
+
+	@Test
+	public void morphFromFab_revealsSheetFromBottomRight() {
+		animation.morphFromFab(fab, DURATION, DURATION, null);
+
+		assertTrue(animation.isSheetVisible());
+		assertEquals(SHEET_WIDTH, sheet.getPivotX(), DELTA);
+		assertEquals(SHEET_HEIGHT, sheet.getPivotY(), DELTA);
+		assertReveal(0);
+		assertRevealedBounds(true, 0, 0, 0, 0);
+
+		clock.advance(DURATION / 2);
+		assertReveal(0.5f);
+		// Half of the sheet, without half of its padding
+		assertRevealedBounds(true, 105, 155, 195, 295);
+		assertRevealedBounds(false, 100, 150, 200, 300);
+
+		clock.advance(DURATION / 2);
+		assertReveal(1);
+		assertRevealedBounds(true, 10, 10, 190, 290);
+		assertRevealedBounds(false, 0, 0, 200, 300);
+	}
+
+	@Test
+	public void morphFromFab_blendsFabColorIntoSheetColor() {
+		animation.morphFromFab(fab, DURATION, DURATION, null);
+
+		assertEquals(FAB_COLOR, getSheetColor());
+		clock.advance(DURATION / 2);
+		assertEquals(HALF_COLOR, getSheetColor());
+		clock.advance(DURATION / 2);
+		assertEquals(SHEET_COLOR, getSheetColor());
+	}
+
+	@Test
+	public void morphIntoFab_shrinksSheetAndHidesIt() {
+		showSheet();
+
+		animation.morphIntoFab(fab, DURATION, DURATION, null);
+
+		// The sheet counts as hidden as soon as it starts shrinking
+		assertFalse(animation.isSheetVisible());
+		assertReveal(1);
+
+		clock.advance(DURATION / 2);
+		assertReveal(0.5f);
+		assertRevealedBounds(false, 100, 150, 200, 300);
+
+		clock.advance(DURATION / 2);
+		assertEquals(0, lastRevealProgress(), DELTA);
+		assertRevealedBounds(false, 0, 0, 0, 0);
+		assertEquals(View.INVISIBLE, sheet.getVisibility());
+		// Restored for the next time the sheet is shown
+		assertEquals(1, sheet.getScaleX(), DELTA);
+		assertEquals(1, sheet.getScaleY(), DELTA);
+		assertEquals(1, sheet.getAlpha(), DELTA);
+	}
+
+	private void showSheet() {
+		animation.morphFromFab(fab, DURATION, DURATION, null);
+		clock.advance(DURATION);
+	}
+
+	private void assertReveal(float reveal) {
+		assertEquals(reveal, lastRevealProgress(), DELTA);
+		assertEquals(reveal, sheet.getScaleX(), DELTA);
+		assertEquals(reveal, sheet.getScaleY(), DELTA);
+		assertEquals(reveal, sheet.getAlpha(), DELTA);
+	}
+
+	private void assertRevealedBounds(boolean excludePadding, int left, int top, int right,
+			int bottom) {
+		animation.getRevealedBounds(lastRevealProgress(), excludePadding, bounds);
+		if (left == right) {
+			assertTrue(bounds.isEmpty());
+			return;
+		}
+		assertEquals(new Rect(left, top, right, bottom), bounds);
+	}
+
+	private float lastRevealProgress() {
+		return revealProgress.get(revealProgress.size() - 1);
+	}
+
+	private int getSheetColor() {
+		return ((ColorDrawable) sheet.getBackground()).getColor();
+	}
+}
@@ -0,0 +1,153 @@
+package com.ivaniskandar.materialsheetfab.animations;
+
+import android.app.Activity;
+import android.view.View;
+import android.view.Window;
+import android.view.animation.LinearInterpolator;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks the overlay's alpha and the dimmed system bar colors at the start, middle and end of
+ * showing and hiding the overlay.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class OverlayAnimationTest {
+
+	private static final float DELTA = 0.0001f;
+	private static final long DURATION = 100;
+	private static final int STATUS_BAR_COLOR = 0xff4080c0;
+	private static final int STATUS_BAR_DIM_COLOR = 0xff000000;
+	// Halfway between the two colors above
+	private static final int STATUS_BAR_HALF_DIM_COLOR = 0xff204060;
+
+	private ManualAnimationClock clock;
+	private View overlay;
+	private OverlayAnimation animation;
+
+	@Before
+	public void setUp() {
+		clock = new ManualAnimationClock();
+		overlay = new View(RuntimeEnvironment.application);
+		overlay.setVisibility(View.GONE);
+		overlay.setAlpha(0);
+		animation = new OverlayAnimation(overlay, new LinearInterpolator(), clock);
+	}
+
+	@Test
+	public void show_fadesIn() {
+		animation.show(DURATION, null);
+
+		assertTrue(animation.isOverlayVisible());
+		assertEquals(0, overlay.getAlpha(), DELTA);
+		clock.advance(DURATION / 2);
+		assertEquals(0.5f, overlay.getAlpha(), DELTA);
+		clock.advance(DURATION / 2);
+		assertEquals(1, overlay.getAlpha(), DELTA);
+		assertTrue(animation.isOverlayVisible());
+	}
+
+	@Test
+	public void hide_fadesOutAndHidesOverlay() {
+		showOverlay();
+
+		animation.hide(DURATION, null);
+
+		assertEquals(1, overlay.getAlpha(), DELTA);
+		clock.advance(DURATION / 2);
+		assertEquals(0.5f, overlay.getAlpha(), DELTA);
+		assertTrue(animation.isOverlayVisible());
+		clock.advance(DURATION / 2);
+		assertEquals(0, overlay.getAlpha(), DELTA);
+		assertFalse(animation.isOverlayVisible());
+	}
+
+	@Test
+	public void hide_whileShowing_fadesOutFromCurrentAlpha() {
+		animation.show(DURATION, null);
+		clock.advance(DURATION / 2);
+
+		animation.hide(DURATION, null);
+
+		assertEquals(0.5f, overlay.getAlpha(), DELTA);
+		clock.advance(DURATION / 2);
+		assertEquals(0.25f, overlay.getAlpha(), DELTA);
+		clock.advance(DURATION / 2);
+		assertEquals(0, overlay.getAlpha(), DELTA);
+	}
+
+	@Test
+	public void show_dimsSystemBarsWithOverlay() {
+		Window window = createWindow();
+		window.setStatusBarColor(STATUS_BAR_COLOR);
+		animation.setSystemBarAnimation(new SystemBarAnimation(window, STATUS_BAR_DIM_COLOR));
+
+		animation.show(DURATION, null);
+
+		assertEquals(STATUS_BAR_COLOR, window.getStatusBarColor());
+		clock.advance(DURATION / 2);
+		assertEquals(STATUS_BAR_HALF_DIM_COLOR, window.getStatusBarColor());
+		clock.advance(DURATION / 2);
+		assertEquals(STATUS_BAR_DIM_COLOR, window.getStatusBarColor());
+	}
+
+	@Test
+	public void hide_restoresSystemBarColors() {
+		Window window = createWindow();
+		window.setStatusBarColor(STATUS_BAR_COLOR);
+		animation.setSystemBarAnimation(new SystemBarAnimation(window, STATUS_BAR_DIM_COLOR));
+		showOverlay();
+
+		animation.hide(DURATION, null);
+
+		assertEquals(STATUS_BAR_DIM_COLOR, window.getStatusBarColor());
+		clock.advance(DURATION / 2);
+		assertEquals(STATUS_BAR_HALF_DIM_COLOR, window.getStatusBarColor());
+		clock.advance(DURATION / 2);
+		assertEquals(STATUS_BAR_COLOR, window.getStatusBarColor());
+	}
+
+	@Test
+	public void setSystemBarAnimation_whileShown_dimsAndLaterRestoresSystemBars() {
+		Window window = createWindow();
+		window.setStatusBarColor(STATUS_BAR_COLOR);
+		showOverlay();
+
+		animation.setSystemBarAnimation(new SystemBarAnimation(window, STATUS_BAR_DIM_COLOR));
+
+		assertEquals(STATUS_BAR_DIM_COLOR, window.getStatusBarColor());
+		animation.hide(DURATION, null);
+		clock.advance(DURATION);
+		assertEquals(STATUS_BAR_COLOR, window.getStatusBarColor());
+	}
+
+	@Test
+	public void setSystemBarAnimation_toNullWhileShown_restoresSystemBars() {
+		Window window = createWindow();
+		window.setStatusBarColor(STATUS_BAR_COLOR);
+		animation.setSystemBarAnimation(new SystemBarAnimation(window, STATUS_BAR_DIM_COLOR));
+		showOverlay();
+
+		animation.setSystemBarAnimation(null);
+
+		assertEquals(STATUS_BAR_COLOR, window.getStatusBarColor());
+	}
+
+	private void showOverlay() {
+		animation.show(DURATION, null);
+		clock.advance(DURATION);
+	}
+
+	private static Window createWindow() {
+		return Robolectric.buildActivity(Activity.class).setup().get().getWindow();
+	}
+}
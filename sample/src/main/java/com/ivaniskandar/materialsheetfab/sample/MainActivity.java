@@ -1,6 +1,5 @@
 package com.ivaniskandar.materialsheetfab.sample;
 
-import android.os.Build;
 import android.os.Bundle;
 import android.support.design.widget.TabLayout;
 import android.support.v4.view.GravityCompat;
@@ -8,6 +7,9 @@ import android.support.v4.view.ViewPager;
 import android.support.v4.widget.DrawerLayout;
 import android.support.v7.app.ActionBarDrawerToggle;
 import android.support.v7.app.AppCompatActivity;
+import android.support.v4.app.Fragment;
+import android.support.v7.widget.RecyclerView;
+import android.support.v7.widget.SearchView;
 import android.support.v7.widget.Toolbar;
 import android.view.Menu;
 import android.view.MenuInflater;
@@ -15,27 +17,46 @@ import android.view.MenuItem;
 import android.view.View;
 import android.widget.Toast;
 
+import com.ivaniskandar.materialsheetfab.AnimatedFabView;
+import com.ivaniskandar.materialsheetfab.FabScrollController;
 import com.ivaniskandar.materialsheetfab.MaterialSheetFab;
 import com.ivaniskandar.materialsheetfab.MaterialSheetFabEventListener;
+import com.ivaniskandar.materialsheetfab.SystemTracer;
 import com.ivaniskandar.materialsheetfab.sample.adapters.MainPagerAdapter;
+import com.ivaniskandar.materialsheetfab.sample.adapters.NotesAdapter;
+import com.ivaniskandar.materialsheetfab.sample.fragments.NotesHost;
+import com.ivaniskandar.materialsheetfab.sample.fragments.NotesListFragment;
+
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * Created by Gordon Wong on 7/17/2015.
  *
  * Main activity for material sheet fab sample.
  */
-public class MainActivity extends AppCompatActivity implements View.OnClickListener {
+public class MainActivity extends AppCompatActivity implements NotesHost {
 
 	private ActionBarDrawerToggle drawerToggle;
 	private DrawerLayout drawerLayout;
+	private AnimatedFabView fab;
 	private MaterialSheetFab materialSheetFab;
-	private int statusBarColor;
+	private FabScrollController fabScrollController;
+	private boolean isPageDragging;
+	private boolean isFabFollowingSwipe;
+	private int snackbarHeight;
+	private RecyclerView.RecycledViewPool notesViewPool;
+	// Most note cards each list has shown at once, keyed by the list's name
+	private final Map<String, Integer> visibleNoteCounts = new HashMap<>();
+	private int maxPooledNoteViews;
+	private String notesQuery = "";
 
 	@Override
 	protected void onCreate(Bundle savedInstanceState) {
 		super.onCreate(savedInstanceState);
 		setTitle(R.string.notes);
 		setContentView(R.layout.activity_main);
+		snackbarHeight = getResources().getDimensionPixelSize(R.dimen.snackbar_height);
 		setupActionBar();
 		setupDrawer();
 		setupFab();
@@ -57,6 +78,12 @@ public class MainActivity extends AppCompatActivity implements View.OnClickListe
 		}
 	}
 
+	@Override
+	public void onTrimMemory(int level) {
+		super.onTrimMemory(level);
+		materialSheetFab.onTrimMemory(level);
+	}
+
 	/**
 	 * Sets up the action bar.
 	 */
@@ -80,7 +107,7 @@ public class MainActivity extends AppCompatActivity implements View.OnClickListe
 	 */
 	private void setupTabs() {
 		// Setup view pager
-		ViewPager viewpager = (ViewPager) findViewById(R.id.viewpager);
+		final ViewPager viewpager = (ViewPager) findViewById(R.id.viewpager);
 		viewpager.setAdapter(new MainPagerAdapter(this, getSupportFragmentManager()));
 		viewpager.setOffscreenPageLimit(MainPagerAdapter.NUM_ITEMS);
 		updatePage(viewpager.getCurrentItem());
@@ -91,6 +118,14 @@ public class MainActivity extends AppCompatActivity implements View.OnClickListe
 		viewpager.addOnPageChangeListener(new ViewPager.OnPageChangeListener() {
 			@Override
 			public void onPageScrolled(int i, float v, int i1) {
+				// Only follow the user's finger, and leave the FAB alone while it is hidden or is
+				// being shown or hidden so its animation isn't canceled on every frame
+				if (isPageDragging && fab.getVisibility() == View.VISIBLE
+						&& !fab.isShowHideAnimationRunning()
+						&& !materialSheetFab.isSheetVisible()) {
+					updateFab(i, v);
+					isFabFollowingSwipe = true;
+				}
 			}
 
 			@Override
@@ -100,6 +135,13 @@ public class MainActivity extends AppCompatActivity implements View.OnClickListe
 
 			@Override
 			public void onPageScrollStateChanged(int i) {
+				isPageDragging = i == ViewPager.SCROLL_STATE_DRAGGING;
+				// Settle a FAB moved by the swipe on the current page, e.g. after a swipe back
+				// to the same page
+				if (i == ViewPager.SCROLL_STATE_IDLE && isFabFollowingSwipe) {
+					isFabFollowingSwipe = false;
+					updateFab(viewpager.getCurrentItem());
+				}
 			}
 		});
 	}
@@ -109,7 +151,7 @@ public class MainActivity extends AppCompatActivity implements View.OnClickListe
 	 */
 	private void setupFab() {
 
-		Fab fab = (Fab) findViewById(R.id.fab);
+		fab = (AnimatedFabView) findViewById(R.id.fab);
 		View sheetView = findViewById(R.id.fab_sheet);
 		View overlay = findViewById(R.id.overlay);
 		int sheetColor = getResources().getColor(R.color.background_card);
@@ -118,28 +160,36 @@ public class MainActivity extends AppCompatActivity implements View.OnClickListe
 		// Create material sheet FAB
 		materialSheetFab = new MaterialSheetFab<>(fab, sheetView, overlay, sheetColor, fabColor);
 
-		// Set material sheet event listener
-		materialSheetFab.setEventListener(new MaterialSheetFabEventListener() {
-			@Override
-			public void onShowSheet() {
-				// Save current status bar color
-				statusBarColor = getStatusBarColor();
-				// Set darker status bar color to match the dim overlay
-				setStatusBarColor(getResources().getColor(R.color.theme_primary_dark2));
-			}
+		// Show the sheet transitions in system traces of debug builds
+		if (BuildConfig.DEBUG) {
+			materialSheetFab.setTracer(SystemTracer.getInstance());
+		}
 
+		// Hide the FAB while scrolling the notes down
+		fabScrollController = new FabScrollController(materialSheetFab);
+
+		// Keep the sheet aligned with the FAB when the FAB moves
+		materialSheetFab.setAnchorTrackingEnabled(true);
+
+		// Prepare the sheet so that the first time it is shown isn't slower
+		materialSheetFab.prewarmSheet();
+
+		// Don't redraw the card's shadow on every frame of the morph on Android < 5.0
+		materialSheetFab.setCachedSheetShadowEnabled(true);
+
+		// Dim the status bar along with the overlay
+		materialSheetFab.setSystemBarDimming(getWindow(),
+				getResources().getColor(R.color.theme_primary_dark2));
+
+		// Set material sheet item click listener
+		materialSheetFab.setEventListener(new MaterialSheetFabEventListener() {
 			@Override
-			public void onHideSheet() {
-				// Restore status bar color
-				setStatusBarColor(statusBarColor);
+			public void onSheetItemClick(int itemId) {
+				Toast.makeText(MainActivity.this, R.string.sheet_item_pressed, Toast.LENGTH_SHORT)
+						.show();
+				materialSheetFab.hideSheet();
 			}
 		});
-
-		// Set material sheet item click listeners
-		findViewById(R.id.fab_sheet_item_recording).setOnClickListener(this);
-		findViewById(R.id.fab_sheet_item_reminder).setOnClickListener(this);
-		findViewById(R.id.fab_sheet_item_photo).setOnClickListener(this);
-		findViewById(R.id.fab_sheet_item_note).setOnClickListener(this);
 	}
 
 	/**
@@ -158,13 +208,14 @@ public class MainActivity extends AppCompatActivity implements View.OnClickListe
 	 * @param selectedPage selected page
 	 */
 	private void updateFab(int selectedPage) {
+		// Scrolling another page shouldn't count towards this page
+		fabScrollController.reset();
 		switch (selectedPage) {
 		case MainPagerAdapter.ALL_POS:
 			materialSheetFab.showFab();
 			break;
 		case MainPagerAdapter.SHARED_POS:
-			materialSheetFab.showFab(0,
-					-getResources().getDimensionPixelSize(R.dimen.snackbar_height));
+			materialSheetFab.showFab(0, -snackbarHeight);
 			break;
 		case MainPagerAdapter.FAVORITES_POS:
 		default:
@@ -173,6 +224,30 @@ public class MainActivity extends AppCompatActivity implements View.OnClickListe
 		}
 	}
 
+	/**
+	 * Moves the FAB between its positions on two pages while swiping between them.
+	 *
+	 * @param position page on the left
+	 * @param positionOffset swipe progress towards the page on the right
+	 */
+	private void updateFab(int position, float positionOffset) {
+		float translationY = getFabTranslationY(position);
+		float scale = getFabScale(position);
+		if (positionOffset > 0 && position + 1 < MainPagerAdapter.NUM_ITEMS) {
+			translationY += (getFabTranslationY(position + 1) - translationY) * positionOffset;
+			scale += (getFabScale(position + 1) - scale) * positionOffset;
+		}
+		materialSheetFab.setFabOffset(0, translationY, scale);
+	}
+
+	private float getFabTranslationY(int page) {
+		return page == MainPagerAdapter.SHARED_POS ? -snackbarHeight : 0;
+	}
+
+	private float getFabScale(int page) {
+		return page == MainPagerAdapter.FAVORITES_POS ? 0 : 1;
+	}
+
 	/**
 	 * Updates the snackbar based on the selected page
 	 *
@@ -192,6 +267,59 @@ public class MainActivity extends AppCompatActivity implements View.OnClickListe
 		}
 	}
 
+	@Override
+	public RecyclerView.RecycledViewPool getNotesViewPool() {
+		if (notesViewPool == null) {
+			notesViewPool = new RecyclerView.RecycledViewPool();
+		}
+		return notesViewPool;
+	}
+
+	@Override
+	public void onVisibleNotesChanged(String listName, int visibleNotes) {
+		Integer visibleNoteCount = visibleNoteCounts.get(listName);
+		if (notesViewPool == null
+				|| (visibleNoteCount != null && visibleNoteCount >= visibleNotes)) {
+			return;
+		}
+		visibleNoteCounts.put(listName, visibleNotes);
+		// A search filters every list at once, so a query matching nothing sends every shown
+		// card to the pool, and clearing the query takes them all back. Scrolling needs less,
+		// since each list first keeps the cards just scrolled off in its own cache.
+		int pooledNoteViews = 0;
+		for (int count : visibleNoteCounts.values()) {
+			pooledNoteViews += count;
+		}
+		if (pooledNoteViews > maxPooledNoteViews) {
+			maxPooledNoteViews = pooledNoteViews;
+			notesViewPool.setMaxRecycledViews(NotesAdapter.VIEW_TYPE_NOTE, maxPooledNoteViews);
+		}
+	}
+
+	@Override
+	public String getNotesQuery() {
+		return notesQuery;
+	}
+
+	@Override
+	public void onNotesScrolled(int dy) {
+		fabScrollController.onScrolled(dy);
+	}
+
+	/**
+	 * Filters the notes of every list.
+	 *
+	 * @param query search query
+	 */
+	private void searchNotes(String query) {
+		notesQuery = query.trim();
+		for (Fragment fragment : getSupportFragmentManager().getFragments()) {
+			if (fragment instanceof NotesListFragment) {
+				((NotesListFragment) fragment).setQuery(notesQuery);
+			}
+		}
+	}
+
 	/**
 	 * Toggles opening/closing the drawer.
 	 */
@@ -203,16 +331,26 @@ public class MainActivity extends AppCompatActivity implements View.OnClickListe
 		}
 	}
 
-	@Override
-	public void onClick(View v) {
-		Toast.makeText(this, R.string.sheet_item_pressed, Toast.LENGTH_SHORT).show();
-		materialSheetFab.hideSheet();
-	}
-
 	@Override
 	public boolean onCreateOptionsMenu(Menu menu) {
 		MenuInflater inflater = getMenuInflater();
 		inflater.inflate(R.menu.menu_main, menu);
+
+		// Search the notes as the query is typed
+		SearchView searchView = (SearchView) menu.findItem(R.id.menu_main_search).getActionView();
+		searchView.setOnQueryTextListener(new SearchView.OnQueryTextListener() {
+			@Override
+			public boolean onQueryTextSubmit(String query) {
+				searchNotes(query);
+				return true;
+			}
+
+			@Override
+			public boolean onQueryTextChange(String newText) {
+				searchNotes(newText);
+				return true;
+			}
+		});
 		return super.onCreateOptionsMenu(menu);
 	}
 
@@ -226,17 +364,4 @@ public class MainActivity extends AppCompatActivity implements View.OnClickListe
 			return super.onOptionsItemSelected(item);
 		}
 	}
-
-	private int getStatusBarColor() {
-		if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
-			return getWindow().getStatusBarColor();
-		}
-		return 0;
-	}
-
-	private void setStatusBarColor(int color) {
-		if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
-			getWindow().setStatusBarColor(color);
-		}
-	}
 }
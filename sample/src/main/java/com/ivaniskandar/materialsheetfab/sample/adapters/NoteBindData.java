@@ -0,0 +1,97 @@
+package com.ivaniskandar.materialsheetfab.sample.adapters;
+
+import android.support.v4.text.PrecomputedTextCompat;
+
+import com.ivaniskandar.materialsheetfab.sample.data.BackgroundExecutor;
+import com.ivaniskandar.materialsheetfab.sample.models.NoteTable;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Precomputed text layouts of a table's long note bodies, for the rows just ahead of the rows
+ * {@link NotesAdapter} has bound. Rows further down are only read once they come close, so a
+ * mapped table isn't decoded ahead of time.
+ */
+final class NoteBindData {
+
+	static final NoteBindData EMPTY = new NoteBindData(null);
+
+	// Number of rows ahead of a bound row whose note text is precomputed
+	private static final int PRECOMPUTE_WINDOW = 30;
+
+	// Note bodies at least this long get their text layout precomputed
+	private static final int PRECOMPUTE_MIN_LENGTH = 100;
+
+	private final PrecomputedTextCompat.Params textParams;
+	// Keyed by the interned note body, so notes with the same body share one layout. Written on
+	// the background thread and read on the main thread.
+	private final ConcurrentHashMap<String, PrecomputedTextCompat> precomputedNotes =
+			new ConcurrentHashMap<>();
+	// End of the rows that have been handed to the background thread. Only used on the main
+	// thread once the bind data has been handed to it.
+	private int scheduledEnd;
+
+	/**
+	 * @param textParams Parameters of the note text view, or null to skip precomputing text.
+	 */
+	NoteBindData(PrecomputedTextCompat.Params textParams) {
+		this.textParams = textParams;
+	}
+
+	boolean hasTextParams() {
+		return textParams != null;
+	}
+
+	/**
+	 * Returns the precomputed text of a note body, or null if it wasn't precomputed.
+	 */
+	PrecomputedTextCompat getPrecomputedNote(String note) {
+		return precomputedNotes.get(note);
+	}
+
+	/**
+	 * Precomputes the rows shown first. Must be called on the background thread, before the bind
+	 * data is handed to the main thread.
+	 */
+	void precomputeFirstRows(NoteTable notes) {
+		if (textParams == null) {
+			return;
+		}
+		scheduledEnd = Math.min(notes.size(), PRECOMPUTE_WINDOW);
+		precomputeNotes(notes, 0, scheduledEnd);
+	}
+
+	/**
+	 * Precomputes the rows ahead of a bound row on the background thread, unless enough of them
+	 * already are. Must be called on the main thread.
+	 *
+	 * @param notes Notes this bind data is for.
+	 * @param position Position of the bound row.
+	 */
+	void precomputeAhead(final NoteTable notes, int position) {
+		int size = notes.size();
+		if (textParams == null || scheduledEnd >= size
+				|| position + PRECOMPUTE_WINDOW / 2 < scheduledEnd) {
+			return;
+		}
+		// Skip the rows jumped over and the bound row, which is already laid out
+		final int start = Math.max(scheduledEnd, position + 1);
+		final int end = Math.min(size, position + PRECOMPUTE_WINDOW);
+		scheduledEnd = end;
+		BackgroundExecutor.execute(new Runnable() {
+			@Override
+			public void run() {
+				precomputeNotes(notes, start, end);
+			}
+		});
+	}
+
+	private void precomputeNotes(NoteTable notes, int start, int end) {
+		for (int i = start; i < end; i++) {
+			String note = notes.getNote(i);
+			if (note.length() >= PRECOMPUTE_MIN_LENGTH && !precomputedNotes.containsKey(note)) {
+				precomputedNotes.put(note, PrecomputedTextCompat.create(note, textParams));
+			}
+		}
+	}
+}
@@ -1,6 +1,8 @@
 package com.ivaniskandar.materialsheetfab.sample.adapters;
 
-import android.content.Context;
+import android.support.v4.text.PrecomputedTextCompat;
+import android.support.v4.widget.TextViewCompat;
+import android.support.v7.util.DiffUtil;
 import android.support.v7.widget.CardView;
 import android.support.v7.widget.RecyclerView;
 import android.text.TextUtils;
@@ -12,7 +14,9 @@ import android.widget.LinearLayout;
 import android.widget.TextView;
 
 import com.ivaniskandar.materialsheetfab.sample.R;
-import com.ivaniskandar.materialsheetfab.sample.models.Note;
+import com.ivaniskandar.materialsheetfab.sample.data.BackgroundExecutor;
+import com.ivaniskandar.materialsheetfab.sample.models.NoteStore;
+import com.ivaniskandar.materialsheetfab.sample.models.NoteTable;
 
 /**
  * Created by Gordon Wong on 7/18/2015.
@@ -21,11 +25,19 @@ import com.ivaniskandar.materialsheetfab.sample.models.Note;
  */
 public class NotesAdapter extends RecyclerView.Adapter<NotesAdapter.ViewHolder> {
 
-	private Note[] notes;
+	// The only view type, which the note lists size their shared view pool for
+	public static final int VIEW_TYPE_NOTE = 0;
 
-	public NotesAdapter(Context context, int numNotes) {
-		notes = generateNotes(context, numNotes);
-	}
+	private NoteTable notes = new NoteStore(1);
+	// Reused for every bind so that binding doesn't allocate, and only the bound rows of a
+	// mapped table are decoded
+	private final NoteTable.Row row = new NoteTable.Row(notes);
+	private NoteBindData bindData = NoteBindData.EMPTY;
+	// Incremented for every new list so that outdated diffs are dropped
+	private int generation;
+	// Resolved from the first bound view holder since the adapter has no context of its own
+	private int contentSpacing = -1;
+	private PrecomputedTextCompat.Params textParams;
 
 	@Override
 	public NotesAdapter.ViewHolder onCreateViewHolder(ViewGroup parent, int viewType) {
@@ -36,50 +48,138 @@ public class NotesAdapter extends RecyclerView.Adapter<NotesAdapter.ViewHolder>
 
 	@Override
 	public void onBindViewHolder(ViewHolder holder, int position) {
-		Note noteModel = notes[position];
+		// Holders may come from a pool shared with other adapters, so check on bind
+		if (contentSpacing < 0) {
+			contentSpacing = holder.itemView.getResources()
+					.getDimensionPixelSize(R.dimen.note_content_spacing);
+		}
+		if (textParams == null) {
+			textParams = TextViewCompat.getTextMetricsParams(holder.noteTextView);
+			bindData = new NoteBindData(textParams);
+		}
+		// Get the text of the rows coming up ready while the list scrolls
+		bindData.precomputeAhead(notes, position);
+
+		NoteTable.Row noteModel = row.moveTo(notes, position);
 		String title = noteModel.getTitle();
 		String note = noteModel.getNote();
 		String info = noteModel.getInfo();
-		int infoImage = noteModel.getInfoImage();
-		int color = noteModel.getColor();
+		boolean hasTitle = !TextUtils.isEmpty(title);
+		boolean hasNote = !TextUtils.isEmpty(note);
+		boolean hasInfo = !TextUtils.isEmpty(info);
 
 		// Set text
 		holder.titleTextView.setText(title);
-		holder.noteTextView.setText(note);
+		PrecomputedTextCompat precomputedNote = bindData.getPrecomputedNote(note);
+		if (precomputedNote != null) {
+			TextViewCompat.setPrecomputedText(holder.noteTextView, precomputedNote);
+		} else {
+			holder.noteTextView.setText(note);
+		}
 		holder.infoTextView.setText(info);
 
-		// Set image
-		if (infoImage != 0) {
+		// Set image, the view keeps the drawable when the same image is bound again
+		int infoImage = noteModel.getInfoImage();
+		if (infoImage != 0 && infoImage != holder.boundInfoImage) {
 			holder.infoImageView.setImageResource(infoImage);
+			holder.boundInfoImage = infoImage;
 		}
 
 		// Set visibilities
-		holder.titleTextView.setVisibility(TextUtils.isEmpty(title) ? View.GONE : View.VISIBLE);
-		holder.noteTextView.setVisibility(TextUtils.isEmpty(note) ? View.GONE : View.VISIBLE);
-		holder.infoLayout.setVisibility(TextUtils.isEmpty(info) ? View.GONE : View.VISIBLE);
+		holder.titleTextView.setVisibility(hasTitle ? View.VISIBLE : View.GONE);
+		holder.noteTextView.setVisibility(hasNote ? View.VISIBLE : View.GONE);
+		holder.infoLayout.setVisibility(hasInfo ? View.VISIBLE : View.GONE);
 
 		// Set padding
-		int paddingTop = (holder.titleTextView.getVisibility() != View.VISIBLE) ? 0
-				: holder.itemView.getContext().getResources()
-						.getDimensionPixelSize(R.dimen.note_content_spacing);
-		holder.noteTextView.setPadding(holder.noteTextView.getPaddingLeft(), paddingTop,
-				holder.noteTextView.getPaddingRight(), holder.noteTextView.getPaddingBottom());
+		int paddingTop = hasTitle ? contentSpacing : 0;
+		if (holder.noteTextView.getPaddingTop() != paddingTop) {
+			holder.noteTextView.setPadding(holder.noteTextView.getPaddingLeft(), paddingTop,
+					holder.noteTextView.getPaddingRight(), holder.noteTextView.getPaddingBottom());
+		}
 
 		// Set background color
-		((CardView) holder.itemView).setCardBackgroundColor(color);
+		((CardView) holder.itemView).setCardBackgroundColor(noteModel.getColor());
 	}
 
 	@Override
 	public int getItemCount() {
-		return notes.length;
+		return notes.size();
+	}
+
+	@Override
+	public int getItemViewType(int position) {
+		return VIEW_TYPE_NOTE;
 	}
 
-	private Note[] generateNotes(Context context, int numNotes) {
-		Note[] notes = new Note[numNotes];
-		for (int i = 0; i < notes.length; i++) {
-			notes[i] = Note.randomNote(context);
+	/**
+	 * Replaces the notes. The changes and the text of the first rows are computed on a background
+	 * thread and then applied to the list.
+	 *
+	 * @param newNotes The new notes. Must not be modified afterwards. Notes with the same ID as a
+	 *            current note must have the same content, e.g. search results of the same table.
+	 */
+	public void setNotes(final NoteTable newNotes) {
+		final NoteTable oldNotes = notes;
+		final PrecomputedTextCompat.Params params = textParams;
+		final int diffGeneration = ++generation;
+		BackgroundExecutor.execute(new Runnable() {
+			@Override
+			public void run() {
+				final NoteBindData newBindData = new NoteBindData(params);
+				newBindData.precomputeFirstRows(newNotes);
+				final DiffUtil.DiffResult result = DiffUtil
+						.calculateDiff(new NotesDiffCallback(oldNotes, newNotes));
+				BackgroundExecutor.postToMain(new Runnable() {
+					@Override
+					public void run() {
+						// Drop the result if newer notes were set in the meantime
+						if (diffGeneration != generation) {
+							return;
+						}
+						notes = newNotes;
+						// The text params may have become known while this was computed
+						bindData = newBindData.hasTextParams() || textParams == null
+								? newBindData : new NoteBindData(textParams);
+						result.dispatchUpdatesTo(NotesAdapter.this);
+					}
+				});
+			}
+		});
+	}
+
+	private static class NotesDiffCallback extends DiffUtil.Callback {
+
+		private final NoteTable oldNotes;
+		private final NoteTable newNotes;
+
+		private NotesDiffCallback(NoteTable oldNotes, NoteTable newNotes) {
+			this.oldNotes = oldNotes;
+			this.newNotes = newNotes;
+		}
+
+		@Override
+		public int getOldListSize() {
+			return oldNotes.size();
+		}
+
+		@Override
+		public int getNewListSize() {
+			return newNotes.size();
+		}
+
+		@Override
+		public boolean areItemsTheSame(int oldPosition, int newPosition) {
+			return oldNotes.getId(oldPosition) == newNotes.getId(newPosition);
+		}
+
+		@Override
+		public boolean areContentsTheSame(int oldPosition, int newPosition) {
+			// Only called for notes with the same ID, whose text is the same (see setNotes()).
+			// Only the fixed-width columns are compared so that the diff doesn't decode the
+			// strings of every row of a mapped table.
+			return oldNotes.getInfoImage(oldPosition) == newNotes.getInfoImage(newPosition)
+					&& oldNotes.getColor(oldPosition) == newNotes.getColor(newPosition);
 		}
-		return notes;
 	}
 
 	public static class ViewHolder extends RecyclerView.ViewHolder {
@@ -89,6 +189,7 @@ public class NotesAdapter extends RecyclerView.Adapter<NotesAdapter.ViewHolder>
 		public LinearLayout infoLayout;
 		public TextView infoTextView;
 		public ImageView infoImageView;
+		private int boundInfoImage;
 
 		public ViewHolder(View itemView) {
 			super(itemView);
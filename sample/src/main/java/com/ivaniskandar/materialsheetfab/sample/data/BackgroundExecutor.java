@@ -0,0 +1,42 @@
+package com.ivaniskandar.materialsheetfab.sample.data;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Runs the sample's data work off the main thread and posts the results back to it.
+ */
+public final class BackgroundExecutor {
+
+	private static final ExecutorService EXECUTOR = Executors.newSingleThreadExecutor(
+			new ThreadFactory() {
+				@Override
+				public Thread newThread(Runnable runnable) {
+					Thread thread = new Thread(runnable, "notes-background");
+					thread.setPriority(Thread.MIN_PRIORITY);
+					return thread;
+				}
+			});
+	private static final Handler MAIN_HANDLER = new Handler(Looper.getMainLooper());
+
+	private BackgroundExecutor() {
+	}
+
+	/**
+	 * Runs the runnable on the background thread.
+	 */
+	public static void execute(Runnable runnable) {
+		EXECUTOR.execute(runnable);
+	}
+
+	/**
+	 * Runs the runnable on the main thread.
+	 */
+	public static void postToMain(Runnable runnable) {
+		MAIN_HANDLER.post(runnable);
+	}
+}
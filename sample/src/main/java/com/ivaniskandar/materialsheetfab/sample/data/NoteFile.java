@@ -0,0 +1,236 @@
+package com.ivaniskandar.materialsheetfab.sample.data;
+
+import com.ivaniskandar.materialsheetfab.sample.R;
+import com.ivaniskandar.materialsheetfab.sample.models.NoteTable;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Notes stored in a binary file that is memory-mapped instead of read into memory.
+ *
+ * Opening a file only maps it, so it takes the same time and memory no matter how many notes the
+ * file has. Rows have a fixed width, so a note is found by its position without an index, and a
+ * string is only decoded the first time a note using it is read.
+ *
+ * The file is laid out as:
+ * <pre>
+ * header:  magic, version, note count, string count            (4 ints)
+ * rows:    id (long), title, note, info, info image, color     (note count * 28 bytes)
+ * offsets: start of every string, plus the end of the last one (string count + 1 ints)
+ * strings: UTF-8 bytes of every distinct string
+ * </pre>
+ * Strings are referenced by their index, so repeated strings are stored only once.
+ */
+public class NoteFile implements NoteTable {
+
+	private static final int MAGIC = 0x4e4f5445; // "NOTE"
+	private static final int VERSION = 1;
+
+	private static final int HEADER_SIZE = 16;
+	private static final int ROW_SIZE = 28;
+	private static final int ROW_TITLE = 8;
+	private static final int ROW_NOTE = 12;
+	private static final int ROW_INFO = 16;
+	private static final int ROW_INFO_IMAGE = 20;
+	private static final int ROW_COLOR = 24;
+
+	// Resource IDs change between builds, so info images are stored as an index into this array
+	private static final int[] INFO_IMAGES = { 0, R.drawable.ic_event_white_24dp,
+			R.drawable.ic_place_white_24dp };
+
+	private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+	private final ByteBuffer buffer;
+	private final int size;
+	private final int offsetsStart;
+	private final int stringsStart;
+	// Decoded lazily; only as long as the number of distinct strings
+	private final String[] strings;
+
+	private NoteFile(ByteBuffer buffer, int size, int stringCount) {
+		this.buffer = buffer;
+		this.size = size;
+		this.strings = new String[stringCount];
+		offsetsStart = HEADER_SIZE + size * ROW_SIZE;
+		stringsStart = offsetsStart + (stringCount + 1) * 4;
+	}
+
+	/**
+	 * Maps a note file.
+	 *
+	 * @throws IOException If the file can't be read or isn't a valid note file.
+	 */
+	public static NoteFile open(File file) throws IOException {
+		RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+		try {
+			FileChannel channel = randomAccessFile.getChannel();
+			long length = channel.size();
+			if (length < HEADER_SIZE || length > Integer.MAX_VALUE) {
+				throw new IOException("Invalid note file length " + length);
+			}
+			// The mapping stays valid after the channel is closed
+			MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+			if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+				throw new IOException("Not a note file: " + file);
+			}
+			int size = buffer.getInt(8);
+			int stringCount = buffer.getInt(12);
+			long stringsStart = HEADER_SIZE + (long) size * ROW_SIZE + (stringCount + 1L) * 4;
+			if (size < 0 || stringCount < 0 || stringsStart > length
+					|| stringsStart + buffer.getInt((int) stringsStart - 4) > length) {
+				throw new IOException("Truncated note file: " + file);
+			}
+			return new NoteFile(buffer, size, stringCount);
+		} finally {
+			randomAccessFile.close();
+		}
+	}
+
+	/**
+	 * Writes notes to a file. The file is replaced only once it has been written completely.
+	 */
+	public static void write(File file, NoteTable notes) throws IOException {
+		HashMap<String, Integer> stringIds = new HashMap<>();
+		List<String> strings = new ArrayList<>();
+		int size = notes.size();
+		int[] rowStrings = new int[size * 3];
+		for (int i = 0; i < size; i++) {
+			rowStrings[i * 3] = stringId(notes.getTitle(i), stringIds, strings);
+			rowStrings[i * 3 + 1] = stringId(notes.getNote(i), stringIds, strings);
+			rowStrings[i * 3 + 2] = stringId(notes.getInfo(i), stringIds, strings);
+		}
+
+		File tempFile = new File(file.getPath() + ".tmp");
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+				new FileOutputStream(tempFile)));
+		try {
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.writeInt(size);
+			out.writeInt(strings.size());
+			for (int i = 0; i < size; i++) {
+				out.writeLong(notes.getId(i));
+				out.writeInt(rowStrings[i * 3]);
+				out.writeInt(rowStrings[i * 3 + 1]);
+				out.writeInt(rowStrings[i * 3 + 2]);
+				out.writeInt(infoImageIndex(notes.getInfoImage(i)));
+				out.writeInt(notes.getColor(i));
+			}
+			ByteArrayOutputStream stringBytes = new ByteArrayOutputStream();
+			for (String string : strings) {
+				out.writeInt(stringBytes.size());
+				byte[] bytes = string.getBytes(UTF_8);
+				stringBytes.write(bytes, 0, bytes.length);
+			}
+			out.writeInt(stringBytes.size());
+			stringBytes.writeTo(out);
+		} finally {
+			out.close();
+		}
+		if (!tempFile.renameTo(file)) {
+			tempFile.delete();
+			throw new IOException("Failed to replace " + file);
+		}
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public long getId(int position) {
+		return buffer.getLong(rowOffset(position));
+	}
+
+	@Override
+	public String getTitle(int position) {
+		return getString(buffer.getInt(rowOffset(position) + ROW_TITLE));
+	}
+
+	@Override
+	public String getNote(int position) {
+		return getString(buffer.getInt(rowOffset(position) + ROW_NOTE));
+	}
+
+	@Override
+	public String getInfo(int position) {
+		return getString(buffer.getInt(rowOffset(position) + ROW_INFO));
+	}
+
+	@Override
+	public int getInfoImage(int position) {
+		int index = buffer.getInt(rowOffset(position) + ROW_INFO_IMAGE);
+		return index > 0 && index < INFO_IMAGES.length ? INFO_IMAGES[index] : 0;
+	}
+
+	@Override
+	public int getColor(int position) {
+		return buffer.getInt(rowOffset(position) + ROW_COLOR);
+	}
+
+	private int rowOffset(int position) {
+		if (position < 0 || position >= size) {
+			throw new IndexOutOfBoundsException("Position " + position + " of " + size);
+		}
+		return HEADER_SIZE + position * ROW_SIZE;
+	}
+
+	private String getString(int id) {
+		String string = strings[id];
+		if (string == null) {
+			string = decodeString(id);
+		}
+		return string;
+	}
+
+	// Synchronized so that every reader gets the same instance of a string
+	private synchronized String decodeString(int id) {
+		String string = strings[id];
+		if (string == null) {
+			int start = buffer.getInt(offsetsStart + id * 4);
+			int end = buffer.getInt(offsetsStart + id * 4 + 4);
+			// Absolute reads, so other threads reading the buffer aren't affected
+			byte[] bytes = new byte[end - start];
+			for (int i = 0; i < bytes.length; i++) {
+				bytes[i] = buffer.get(stringsStart + start + i);
+			}
+			string = new String(bytes, UTF_8);
+			strings[id] = string;
+		}
+		return string;
+	}
+
+	private static int stringId(String string, HashMap<String, Integer> stringIds,
+			List<String> strings) {
+		Integer id = stringIds.get(string);
+		if (id == null) {
+			id = strings.size();
+			strings.add(string);
+			stringIds.put(string, id);
+		}
+		return id;
+	}
+
+	private static int infoImageIndex(int infoImage) {
+		for (int i = 1; i < INFO_IMAGES.length; i++) {
+			if (INFO_IMAGES[i] == infoImage) {
+				return i;
+			}
+		}
+		return 0;
+	}
+}
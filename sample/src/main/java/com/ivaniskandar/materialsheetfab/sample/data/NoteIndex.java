@@ -0,0 +1,155 @@
+package com.ivaniskandar.materialsheetfab.sample.data;
+
+import com.ivaniskandar.materialsheetfab.sample.models.NoteSelection;
+import com.ivaniskandar.materialsheetfab.sample.models.NoteTable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Inverted index of the words in a table's notes, answering prefix searches without scanning
+ * every note.
+ *
+ * The index is built on the first search and is incremental: {@link #update()} only indexes notes
+ * added to the table since the last update.
+ * It is not thread safe and should only be used from the background thread.
+ */
+public class NoteIndex {
+
+	private final NoteTable notes;
+	// Sorted so that all words starting with a prefix are next to each other
+	private final TreeMap<String, Postings> postings = new TreeMap<>();
+	// Notes share most of their strings, so each distinct string is only tokenized once
+	private final HashMap<String, String[]> tokenCache = new HashMap<>();
+	private final StringBuilder tokenBuilder = new StringBuilder();
+	private int indexedCount;
+
+	/**
+	 * @param notes Notes to index. Notes may be added to the table later, but existing notes must
+	 *            not change.
+	 */
+	public NoteIndex(NoteTable notes) {
+		this.notes = notes;
+	}
+
+	/**
+	 * Indexes the notes added to the table since the last update.
+	 */
+	public void update() {
+		int size = notes.size();
+		for (int position = indexedCount; position < size; position++) {
+			indexString(notes.getTitle(position), position);
+			indexString(notes.getNote(position), position);
+			indexString(notes.getInfo(position), position);
+		}
+		indexedCount = size;
+	}
+
+	/**
+	 * Finds the notes containing a word starting with every word of the query.
+	 *
+	 * @param query Words to search for. Case is ignored.
+	 * @return The matching notes in table order, or the table itself for an empty query.
+	 */
+	public NoteTable search(String query) {
+		String[] queryTokens = tokenize(query);
+		if (queryTokens.length == 0) {
+			return notes;
+		}
+		// Only index the notes once they are searched, so showing all notes reads no strings
+		update();
+
+		BitSet matches = null;
+		for (String queryToken : queryTokens) {
+			BitSet tokenMatches = findPrefix(queryToken);
+			if (matches == null) {
+				matches = tokenMatches;
+			} else {
+				matches.and(tokenMatches);
+			}
+			if (matches.isEmpty()) {
+				break;
+			}
+		}
+
+		int[] positions = new int[matches.cardinality()];
+		int count = 0;
+		for (int i = matches.nextSetBit(0); i >= 0; i = matches.nextSetBit(i + 1)) {
+			positions[count++] = i;
+		}
+		return new NoteSelection(notes, positions, count);
+	}
+
+	private BitSet findPrefix(String prefix) {
+		BitSet matches = new BitSet(indexedCount);
+		// Every word starting with the prefix sorts between the prefix and the prefix followed
+		// by the highest char
+		SortedMap<String, Postings> words = postings.subMap(prefix, prefix + Character.MAX_VALUE);
+		for (Postings wordPostings : words.values()) {
+			for (int i = 0; i < wordPostings.size; i++) {
+				matches.set(wordPostings.positions[i]);
+			}
+		}
+		return matches;
+	}
+
+	private void indexString(String string, int position) {
+		if (string.isEmpty()) {
+			return;
+		}
+		String[] tokens = tokenCache.get(string);
+		if (tokens == null) {
+			tokens = tokenize(string);
+			tokenCache.put(string, tokens);
+		}
+		for (String token : tokens) {
+			Postings wordPostings = postings.get(token);
+			if (wordPostings == null) {
+				wordPostings = new Postings();
+				postings.put(token, wordPostings);
+			}
+			wordPostings.add(position);
+		}
+	}
+
+	private String[] tokenize(String string) {
+		List<String> tokens = new ArrayList<>();
+		StringBuilder token = tokenBuilder;
+		token.setLength(0);
+		for (int i = 0, length = string.length(); i <= length; i++) {
+			char c = i < length ? string.charAt(i) : ' ';
+			if (Character.isLetterOrDigit(c)) {
+				token.append(Character.toLowerCase(c));
+			} else if (token.length() > 0) {
+				tokens.add(token.toString());
+				token.setLength(0);
+			}
+		}
+		return tokens.toArray(new String[tokens.size()]);
+	}
+
+	/**
+	 * Positions of the notes containing a word, in ascending order.
+	 */
+	private static class Postings {
+
+		private int[] positions = new int[4];
+		private int size;
+
+		private void add(int position) {
+			// Notes are indexed in order, so a repeated word is always the last position
+			if (size > 0 && positions[size - 1] == position) {
+				return;
+			}
+			if (size == positions.length) {
+				positions = Arrays.copyOf(positions, size * 2);
+			}
+			positions[size++] = position;
+		}
+	}
+}
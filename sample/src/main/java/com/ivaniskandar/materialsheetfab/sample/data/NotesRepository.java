@@ -0,0 +1,80 @@
+package com.ivaniskandar.materialsheetfab.sample.data;
+
+import android.content.Context;
+import android.util.Log;
+
+import com.ivaniskandar.materialsheetfab.sample.models.NoteGenerator;
+import com.ivaniskandar.materialsheetfab.sample.models.NoteStore;
+import com.ivaniskandar.materialsheetfab.sample.models.NoteTable;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Loads the sample's notes without blocking the main thread.
+ */
+public final class NotesRepository {
+
+	private static final String TAG = "NotesRepository";
+
+	/**
+	 * Callback for loaded notes. Called on the main thread.
+	 */
+	public interface Callback {
+		void onNotesLoaded(NoteTable notes);
+	}
+
+	private NotesRepository() {
+	}
+
+	/**
+	 * Loads saved notes on the background thread. If there are no saved notes yet, random notes
+	 * are generated and saved.
+	 *
+	 * @param context Context used to resolve note resources and the notes file.
+	 * @param name Name the notes are saved under.
+	 * @param numNotes Number of notes to generate when there are no saved notes.
+	 * @param callback Callback for the loaded notes.
+	 */
+	public static void loadSavedNotes(Context context, String name, final int numNotes,
+			final Callback callback) {
+		final Context appContext = context.getApplicationContext();
+		final File file = new File(appContext.getFilesDir(), "notes-" + name + ".bin");
+		BackgroundExecutor.execute(new Runnable() {
+			@Override
+			public void run() {
+				final NoteTable notes = loadOrGenerate(appContext, file, numNotes);
+				BackgroundExecutor.postToMain(new Runnable() {
+					@Override
+					public void run() {
+						callback.onNotesLoaded(notes);
+					}
+				});
+			}
+		});
+	}
+
+	private static NoteTable loadOrGenerate(Context context, File file, int numNotes) {
+		if (file.exists()) {
+			try {
+				NoteFile notes = NoteFile.open(file);
+				if (notes.size() == numNotes) {
+					return notes;
+				}
+			} catch (IOException e) {
+				Log.w(TAG, "Failed to open saved notes, generating new ones", e);
+			}
+		}
+		NoteStore notes = new NoteStore(numNotes);
+		new NoteGenerator(context, Double.doubleToLongBits(Math.random())).generate(numNotes,
+				notes);
+		try {
+			NoteFile.write(file, notes);
+			// Read the notes back from the mapped file so the generated copy can be collected
+			return NoteFile.open(file);
+		} catch (IOException e) {
+			Log.w(TAG, "Failed to save notes", e);
+			return notes;
+		}
+	}
+}
@@ -0,0 +1,36 @@
+package com.ivaniskandar.materialsheetfab.sample.fragments;
+
+import android.support.v7.widget.RecyclerView;
+
+/**
+ * Implemented by the activity hosting {@link NotesListFragment}s so that the fragments can share
+ * their note views and search query, and react to them scrolling.
+ */
+public interface NotesHost {
+
+	/**
+	 * Returns the view pool shared by all note lists.
+	 */
+	RecyclerView.RecycledViewPool getNotesViewPool();
+
+	/**
+	 * Called when the number of note cards a list shows at once may have changed, so that the
+	 * shared view pool can be sized for it.
+	 *
+	 * @param listName Name of the list, the same every time a list calls this.
+	 * @param visibleNotes Number of cards the list shows.
+	 */
+	void onVisibleNotesChanged(String listName, int visibleNotes);
+
+	/**
+	 * Returns the current search query, or an empty string when not searching.
+	 */
+	String getNotesQuery();
+
+	/**
+	 * Called when a note list scrolls.
+	 *
+	 * @param dy Vertical scroll delta in pixels, positive when scrolling down.
+	 */
+	void onNotesScrolled(int dy);
+}
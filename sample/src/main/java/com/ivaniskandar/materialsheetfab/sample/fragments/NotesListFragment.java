@@ -12,6 +12,10 @@ import android.view.ViewGroup;
 
 import com.ivaniskandar.materialsheetfab.sample.R;
 import com.ivaniskandar.materialsheetfab.sample.adapters.NotesAdapter;
+import com.ivaniskandar.materialsheetfab.sample.data.BackgroundExecutor;
+import com.ivaniskandar.materialsheetfab.sample.data.NoteIndex;
+import com.ivaniskandar.materialsheetfab.sample.data.NotesRepository;
+import com.ivaniskandar.materialsheetfab.sample.models.NoteTable;
 
 /**
  * Created by Gordon Wong on 7/18/2015.
@@ -27,18 +31,113 @@ public abstract class NotesListFragment extends Fragment {
 
 	protected abstract int getNumItems();
 
+	private RecyclerView recyclerView;
+	private NotesAdapter adapter;
+	// Only used on the background thread
+	private NoteIndex index;
+	private String query = "";
+
+	private final RecyclerView.OnScrollListener scrollListener = new RecyclerView.OnScrollListener() {
+		@Override
+		public void onScrolled(RecyclerView recyclerView, int dx, int dy) {
+			if (getActivity() instanceof NotesHost) {
+				NotesHost host = (NotesHost) getActivity();
+				host.onNotesScrolled(dy);
+				// Also called after a layout changes which cards are shown
+				host.onVisibleNotesChanged(getClass().getSimpleName(),
+						recyclerView.getChildCount());
+			}
+		}
+	};
+
 	@Nullable
 	@Override
 	public View onCreateView(LayoutInflater inflater, ViewGroup container, Bundle savedInstanceState) {
 		View view = inflater.inflate(getLayoutResId(), container, false);
 
 		// Setup list
-		RecyclerView recyclerView = (RecyclerView) view.findViewById(R.id.notes_list);
-		recyclerView.setLayoutManager(new StaggeredGridLayoutManager(getNumColumns(),
-				StaggeredGridLayoutManager.VERTICAL));
-		recyclerView.setAdapter(new NotesAdapter(getActivity(), getNumItems()));
+		recyclerView = (RecyclerView) view.findViewById(R.id.notes_list);
+		StaggeredGridLayoutManager layoutManager = new StaggeredGridLayoutManager(getNumColumns(),
+				StaggeredGridLayoutManager.VERTICAL);
+		recyclerView.setLayoutManager(layoutManager);
+		// Reuse the cards of the other lists instead of inflating new ones
+		if (getActivity() instanceof NotesHost) {
+			recyclerView.setRecycledViewPool(
+					((NotesHost) getActivity()).getNotesViewPool());
+		}
+		recyclerView.addOnScrollListener(scrollListener);
+		adapter = new NotesAdapter();
+		recyclerView.setAdapter(adapter);
+		if (getActivity() instanceof NotesHost) {
+			query = ((NotesHost) getActivity()).getNotesQuery();
+		}
+
+		// Load notes in the background so that creating the list doesn't wait for them
+		NotesRepository.loadSavedNotes(getActivity(), getClass().getSimpleName(), getNumItems(),
+				new NotesRepository.Callback() {
+					@Override
+					public void onNotesLoaded(NoteTable notes) {
+						final NoteIndex notesIndex = new NoteIndex(notes);
+						BackgroundExecutor.execute(new Runnable() {
+							@Override
+							public void run() {
+								index = notesIndex;
+							}
+						});
+						search();
+					}
+				});
 
 		return view;
 	}
 
+	@Override
+	public void onDestroyView() {
+		super.onDestroyView();
+		// Give the cards back to the shared pool so the other lists can use them
+		recyclerView.setAdapter(null);
+		recyclerView.removeOnScrollListener(scrollListener);
+		recyclerView = null;
+		adapter = null;
+	}
+
+	/**
+	 * Shows only the notes matching a query.
+	 *
+	 * @param query Words the notes should contain, or an empty string to show all notes.
+	 */
+	public void setQuery(String query) {
+		if (!this.query.equals(query)) {
+			this.query = query;
+			search();
+		}
+	}
+
+	private void search() {
+		final NotesAdapter searchAdapter = adapter;
+		final String searchQuery = query;
+		if (searchAdapter == null) {
+			return;
+		}
+		BackgroundExecutor.execute(new Runnable() {
+			@Override
+			public void run() {
+				// The notes haven't been loaded yet, they are searched once they are
+				if (index == null) {
+					return;
+				}
+				final NoteTable results = index.search(searchQuery);
+				BackgroundExecutor.postToMain(new Runnable() {
+					@Override
+					public void run() {
+						// Drop results for an old query or a destroyed view
+						if (searchAdapter == adapter && searchQuery.equals(query)) {
+							adapter.setNotes(results);
+						}
+					}
+				});
+			}
+		});
+	}
+
 }
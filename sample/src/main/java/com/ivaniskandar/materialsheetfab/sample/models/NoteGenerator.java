@@ -0,0 +1,298 @@
+package com.ivaniskandar.materialsheetfab.sample.models;
+
+import android.content.Context;
+import android.content.res.Resources;
+import android.text.format.DateFormat;
+
+import com.ivaniskandar.materialsheetfab.sample.R;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Generates random notes from a seed. The same seed, base date and number of notes always
+ * produce the same notes, no matter how many threads generate them.
+ *
+ * Every note gets its own random sequence derived from the seed and the note's position, so
+ * notes can be generated in any order and on any thread without sharing random state. All
+ * strings a note can use are built once when the generator is created.
+ */
+public class NoteGenerator {
+
+	private static final String[] ACTIONS_PEOPLE = { "call", "email", "meet up with",
+			"hang out with" };
+	private static final String[] ACTIONS_OBJECTS = { "clean", "buy", "sell", "fix" };
+	private static final String[] NAMES = { "Sherry", "Gordon", "Tom", "Kevin", "Brian", "Naomi",
+			"Ali", "Jennifer" };
+	private static final String[] OBJECTS = { "desk", "car", "motorcycle", "computer", "laptop" };
+	private static final String WORDS = "Lorem ipsum dolor sit amet, consectetuer adipiscing elit.";
+	private static final String[] CITIES = { "San Francisco", "Campbell", "Lincoln", "New York",
+			"Silverton", "Scarface", "King Salmon" };
+
+	private static final String[] LIST_TITLES = { "shopping", "to bring", "on sale", "look for",
+			"buy", "get rid of", "" };
+	private static final String[] LIST_DELIMITERS = { "•", "-", "" };
+	private static final String[][] LISTS = {
+			{ "almond milk", "coconut water", "cucumber", "green apples" },
+			{ "lantern", "smores", "extra blankets", "warm socks", "first aid kit", "tent" } };
+
+	private static final int NUM_WORDS = 4;
+	private static final int DATE_RANGE = 60;
+
+	// Notes generated per task when generating in parallel
+	private static final int CHUNK_SIZE = 2048;
+
+	// Every possible string, built once
+	private static final String[][] PEOPLE_ACTIVITIES = combine(ACTIONS_PEOPLE, NAMES);
+	private static final String[][] OBJECT_ACTIVITIES = combine(ACTIONS_OBJECTS, OBJECTS);
+	private static final String[] WORD_NOTES = buildWordNotes();
+	private static final String[] LIST_TITLE_CHOICES = buildListTitles();
+	private static final String[][] LIST_NOTES = buildListNotes();
+
+	private static ExecutorService executor;
+
+	private final long seed;
+	private final int[] accentColors;
+	private final int[] neutralColors;
+	private final String[] dates = new String[DATE_RANGE];
+
+	/**
+	 * Creates a generator whose dates start today.
+	 *
+	 * @param context Context used to resolve the note colors and date format.
+	 * @param seed Seed of the notes.
+	 */
+	public NoteGenerator(Context context, long seed) {
+		this(context, seed, System.currentTimeMillis());
+	}
+
+	/**
+	 * @param context Context used to resolve the note colors and date format.
+	 * @param seed Seed of the notes.
+	 * @param baseTimeMillis Earliest date of the notes.
+	 */
+	public NoteGenerator(Context context, long seed, long baseTimeMillis) {
+		this.seed = seed;
+		Resources resources = context.getResources();
+		accentColors = resources.getIntArray(R.array.note_accent_colors);
+		neutralColors = resources.getIntArray(R.array.note_neutral_colors);
+
+		// There are only a few possible dates, so format each of them once
+		java.text.DateFormat dateFormat = DateFormat.getMediumDateFormat(context);
+		Calendar cal = Calendar.getInstance();
+		cal.setTimeInMillis(baseTimeMillis);
+		for (int i = 0; i < DATE_RANGE; i++) {
+			dates[i] = dateFormat.format(cal.getTime());
+			cal.add(Calendar.DATE, 1);
+		}
+	}
+
+	/**
+	 * Generates notes into a store, splitting large amounts across background threads. Blocks
+	 * until all notes are generated, so it must not be called on the main thread.
+	 *
+	 * @param numNotes Number of notes to generate.
+	 * @param store Store the notes are added to.
+	 */
+	public void generate(int numNotes, NoteStore store) {
+		if (numNotes <= CHUNK_SIZE) {
+			generate(0, numNotes, store);
+			return;
+		}
+
+		List<Future<NoteStore>> chunks = new ArrayList<>();
+		for (int start = 0; start < numNotes; start += CHUNK_SIZE) {
+			final int chunkStart = start;
+			final int chunkEnd = Math.min(start + CHUNK_SIZE, numNotes);
+			chunks.add(getExecutor().submit(new Callable<NoteStore>() {
+				@Override
+				public NoteStore call() {
+					NoteStore chunk = new NoteStore(chunkEnd - chunkStart);
+					generate(chunkStart, chunkEnd, chunk);
+					return chunk;
+				}
+			}));
+		}
+		// Add the chunks in order so that the notes don't depend on which chunk finished first
+		try {
+			for (Future<NoteStore> chunk : chunks) {
+				store.addAll(chunk.get());
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while generating notes", e);
+		} catch (ExecutionException e) {
+			throw new IllegalStateException("Failed to generate notes", e.getCause());
+		}
+	}
+
+	private void generate(int start, int end, NoteStore store) {
+		NoteRandom random = new NoteRandom();
+		for (int i = start; i < end; i++) {
+			random.setSeed(seed, i);
+			generateNote(random, store);
+		}
+	}
+
+	private void generateNote(NoteRandom random, NoteStore store) {
+		double rand = random.nextDouble();
+		String title;
+		String note = "";
+		String info = "";
+		int infoImage = 0;
+		int[] colors = random.nextDouble() >= 0.6 ? accentColors : neutralColors;
+		int color = colors[random.nextInt(colors.length)];
+
+		// Title only
+		if (rand >= 0.65) {
+			title = getRandomActivity(random);
+			if (random.nextDouble() >= 0.7) {
+				info = dates[random.nextInt(DATE_RANGE)];
+				infoImage = R.drawable.ic_event_white_24dp;
+			}
+		}
+		// Title and note
+		else if (rand >= 0.3) {
+			title = getRandomActivity(random);
+			note = WORD_NOTES[random.nextInt(NUM_WORDS)];
+			if (random.nextDouble() >= 0.7) {
+				if (random.nextDouble() >= 0.5) {
+					info = dates[random.nextInt(DATE_RANGE)];
+					infoImage = R.drawable.ic_event_white_24dp;
+				} else {
+					info = CITIES[random.nextInt(CITIES.length)];
+					infoImage = R.drawable.ic_place_white_24dp;
+				}
+			}
+		}
+		// Lists
+		else {
+			title = LIST_TITLE_CHOICES[random.nextInt(LIST_TITLE_CHOICES.length)];
+			note = LIST_NOTES[random.nextInt(LISTS.length)][random
+					.nextInt(LIST_DELIMITERS.length)];
+			if (random.nextDouble() >= 0.7) {
+				info = CITIES[random.nextInt(CITIES.length)];
+				infoImage = R.drawable.ic_place_white_24dp;
+			}
+		}
+
+		store.add(title, note, info, infoImage, color);
+	}
+
+	private static String getRandomActivity(NoteRandom random) {
+		String[][] activities = random.nextDouble() >= 0.5 ? PEOPLE_ACTIVITIES : OBJECT_ACTIVITIES;
+		String[] actions = activities[random.nextInt(activities.length)];
+		return actions[random.nextInt(actions.length)];
+	}
+
+	private static synchronized ExecutorService getExecutor() {
+		if (executor == null) {
+			int threads = Math.max(Runtime.getRuntime().availableProcessors() - 1, 1);
+			executor = Executors.newFixedThreadPool(threads, new ThreadFactory() {
+				@Override
+				public Thread newThread(Runnable runnable) {
+					Thread thread = new Thread(runnable, "notes-generator");
+					thread.setPriority(Thread.MIN_PRIORITY);
+					thread.setDaemon(true);
+					return thread;
+				}
+			});
+		}
+		return executor;
+	}
+
+	private static String[][] combine(String[] actions, String[] objects) {
+		String[][] activities = new String[actions.length][objects.length];
+		for (int i = 0; i < actions.length; i++) {
+			for (int j = 0; j < objects.length; j++) {
+				activities[i][j] = capitalize(actions[i] + " " + objects[j]);
+			}
+		}
+		return activities;
+	}
+
+	private static String[] buildWordNotes() {
+		String[] notes = new String[NUM_WORDS];
+		StringBuilder builder = new StringBuilder();
+		for (int i = 0; i < NUM_WORDS; i++) {
+			if (i > 0) {
+				builder.append(' ');
+			}
+			builder.append(WORDS);
+			notes[i] = builder.toString();
+		}
+		return notes;
+	}
+
+	private static String[] buildListTitles() {
+		String[] titles = new String[LIST_TITLES.length];
+		for (int i = 0; i < LIST_TITLES.length; i++) {
+			titles[i] = LIST_TITLES[i].isEmpty() ? "" : capitalize(LIST_TITLES[i] + ":");
+		}
+		return titles;
+	}
+
+	private static String[][] buildListNotes() {
+		String[][] notes = new String[LISTS.length][LIST_DELIMITERS.length];
+		StringBuilder builder = new StringBuilder();
+		for (int i = 0; i < LISTS.length; i++) {
+			for (int j = 0; j < LIST_DELIMITERS.length; j++) {
+				String delimiter = LIST_DELIMITERS[j].isEmpty() ? "" : LIST_DELIMITERS[j] + " ";
+				builder.setLength(0);
+				for (int k = 0; k < LISTS[i].length; k++) {
+					if (k > 0) {
+						builder.append('\n');
+					}
+					builder.append(delimiter).append(LISTS[i][k]);
+				}
+				notes[i][j] = builder.toString();
+			}
+		}
+		return notes;
+	}
+
+	private static String capitalize(String str) {
+		return Character.toUpperCase(str.charAt(0)) + str.substring(1);
+	}
+
+	/**
+	 * SplitMix64 generator, reseeded for every note from the generator's seed and the note's
+	 * position.
+	 */
+	private static final class NoteRandom {
+
+		private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+		private long state;
+
+		void setSeed(long seed, int position) {
+			state = mix(seed + (position + 1) * GOLDEN_GAMMA);
+		}
+
+		long nextLong() {
+			state += GOLDEN_GAMMA;
+			return mix(state);
+		}
+
+		double nextDouble() {
+			return (nextLong() >>> 11) * 0x1.0p-53;
+		}
+
+		int nextInt(int bound) {
+			return (int) (nextDouble() * bound);
+		}
+
+		private static long mix(long z) {
+			z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+			z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+			return z ^ (z >>> 31);
+		}
+	}
+}
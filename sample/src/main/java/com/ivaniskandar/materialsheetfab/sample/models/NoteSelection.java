@@ -0,0 +1,58 @@
+package com.ivaniskandar.materialsheetfab.sample.models;
+
+/**
+ * Some of another table's notes, without copying them. The notes keep their IDs.
+ */
+public class NoteSelection implements NoteTable {
+
+	private final NoteTable table;
+	private final int[] positions;
+	private final int size;
+
+	/**
+	 * @param table Table to select notes from.
+	 * @param positions Positions of the selected notes in the table. Must not be modified
+	 *            afterwards.
+	 * @param size Number of positions to use.
+	 */
+	public NoteSelection(NoteTable table, int[] positions, int size) {
+		this.table = table;
+		this.positions = positions;
+		this.size = size;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public long getId(int position) {
+		return table.getId(positions[position]);
+	}
+
+	@Override
+	public String getTitle(int position) {
+		return table.getTitle(positions[position]);
+	}
+
+	@Override
+	public String getNote(int position) {
+		return table.getNote(positions[position]);
+	}
+
+	@Override
+	public String getInfo(int position) {
+		return table.getInfo(positions[position]);
+	}
+
+	@Override
+	public int getInfoImage(int position) {
+		return table.getInfoImage(positions[position]);
+	}
+
+	@Override
+	public int getColor(int position) {
+		return table.getColor(positions[position]);
+	}
+}
@@ -0,0 +1,159 @@
+package com.ivaniskandar.materialsheetfab.sample.models;
+
+import android.support.annotation.DrawableRes;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Column-oriented storage for many notes.
+ *
+ * Instead of one object per note, every note field is kept in a primitive array indexed by the
+ * note's position. Strings are dictionary encoded: each distinct title, body and info string is
+ * stored once and notes only keep its int ID. Since the random notes are built from a small
+ * vocabulary, a store with 100,000 notes holds only a few hundred strings.
+ *
+ * A store is filled on one thread and must not be modified once it is handed to another thread.
+ */
+public class NoteStore implements NoteTable {
+
+	private static final int DEFAULT_CAPACITY = 16;
+	private static final AtomicLong NEXT_ID = new AtomicLong();
+
+	private final HashMap<String, Integer> stringIds = new HashMap<>();
+	private final ArrayList<String> strings = new ArrayList<>();
+
+	private int size;
+	private long[] ids;
+	private int[] titles;
+	private int[] notes;
+	private int[] infos;
+	private int[] infoImages;
+	private int[] colors;
+
+	public NoteStore() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * @param capacity Number of notes to allocate room for.
+	 */
+	public NoteStore(int capacity) {
+		capacity = Math.max(capacity, 1);
+		ids = new long[capacity];
+		titles = new int[capacity];
+		notes = new int[capacity];
+		infos = new int[capacity];
+		infoImages = new int[capacity];
+		colors = new int[capacity];
+	}
+
+	/**
+	 * Adds a note with a new unique ID.
+	 *
+	 * @return Position of the added note.
+	 */
+	public int add(String title, String note, String info, @DrawableRes int infoImage, int color) {
+		if (size == ids.length) {
+			grow();
+		}
+		int position = size++;
+		ids[position] = NEXT_ID.getAndIncrement();
+		titles[position] = intern(title);
+		notes[position] = intern(note);
+		infos[position] = intern(info);
+		infoImages[position] = infoImage;
+		colors[position] = color;
+		return position;
+	}
+
+	/**
+	 * Adds all notes of another store, in order, with new unique IDs.
+	 */
+	public void addAll(NoteStore other) {
+		for (int i = 0; i < other.size; i++) {
+			add(other.getTitle(i), other.getNote(i), other.getInfo(i), other.infoImages[i],
+					other.colors[i]);
+		}
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Returns the number of distinct strings referenced by the notes.
+	 */
+	public int getStringCount() {
+		return strings.size();
+	}
+
+	@Override
+	public long getId(int position) {
+		return ids[position];
+	}
+
+	@Override
+	public String getTitle(int position) {
+		return strings.get(titles[position]);
+	}
+
+	@Override
+	public String getNote(int position) {
+		return strings.get(notes[position]);
+	}
+
+	@Override
+	public String getInfo(int position) {
+		return strings.get(infos[position]);
+	}
+
+	@Override
+	public int getInfoImage(int position) {
+		return infoImages[position];
+	}
+
+	@Override
+	public int getColor(int position) {
+		return colors[position];
+	}
+
+	/**
+	 * Shrinks the columns to the number of notes.
+	 */
+	public void trimToSize() {
+		int capacity = Math.max(size, 1);
+		if (capacity < ids.length) {
+			resize(capacity);
+		}
+	}
+
+	private int intern(String string) {
+		if (string == null) {
+			string = "";
+		}
+		Integer id = stringIds.get(string);
+		if (id == null) {
+			id = strings.size();
+			strings.add(string);
+			stringIds.put(string, id);
+		}
+		return id;
+	}
+
+	private void grow() {
+		resize(ids.length + (ids.length >> 1) + 1);
+	}
+
+	private void resize(int capacity) {
+		ids = Arrays.copyOf(ids, capacity);
+		titles = Arrays.copyOf(titles, capacity);
+		notes = Arrays.copyOf(notes, capacity);
+		infos = Arrays.copyOf(infos, capacity);
+		infoImages = Arrays.copyOf(infoImages, capacity);
+		colors = Arrays.copyOf(colors, capacity);
+	}
+}
@@ -0,0 +1,92 @@
+package com.ivaniskandar.materialsheetfab.sample.models;
+
+import android.support.annotation.DrawableRes;
+
+/**
+ * Read-only table of notes, addressed by position.
+ *
+ * Implementations must be safe to read from several threads once they are handed out.
+ */
+public interface NoteTable {
+
+	int size();
+
+	long getId(int position);
+
+	String getTitle(int position);
+
+	String getNote(int position);
+
+	String getInfo(int position);
+
+	@DrawableRes
+	int getInfoImage(int position);
+
+	int getColor(int position);
+
+	/**
+	 * Flyweight view of one note in a table. Reading a note through a row doesn't allocate.
+	 */
+	class Row {
+
+		private NoteTable table;
+		private int position = -1;
+
+		public Row(NoteTable table) {
+			this.table = table;
+		}
+
+		/**
+		 * Points the row at the note in the given position.
+		 *
+		 * @return This row.
+		 */
+		public Row moveTo(int position) {
+			if (position < 0 || position >= table.size()) {
+				throw new IndexOutOfBoundsException("Position " + position + " of "
+						+ table.size());
+			}
+			this.position = position;
+			return this;
+		}
+
+		/**
+		 * Points the row at a note of another table.
+		 *
+		 * @return This row.
+		 */
+		public Row moveTo(NoteTable table, int position) {
+			this.table = table;
+			return moveTo(position);
+		}
+
+		public int getPosition() {
+			return position;
+		}
+
+		public long getId() {
+			return table.getId(position);
+		}
+
+		public String getTitle() {
+			return table.getTitle(position);
+		}
+
+		public String getNote() {
+			return table.getNote(position);
+		}
+
+		public String getInfo() {
+			return table.getInfo(position);
+		}
+
+		@DrawableRes
+		public int getInfoImage() {
+			return table.getInfoImage(position);
+		}
+
+		public int getColor() {
+			return table.getColor(position);
+		}
+	}
+}